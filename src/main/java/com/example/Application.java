@@ -1,5 +1,8 @@
 package com.example;
 
+import com.example.repository.UserRepository;
+import com.example.validation.UniqueEmail;
+import com.example.validation.UniqueEmailValidator;
 import com.vcinsidedigital.webcore.WebServerApplication;
 import com.vcinsidedigital.webcore.annotations.WebApplication;
 import com.vcinsidedigital.webcore.validation.ValidationPlugin;
@@ -8,7 +11,16 @@ import com.vcinsidedigital.webcore.validation.ValidationPlugin;
 public class Application extends WebServerApplication
 {
     public static void main(String[] args){
-        registerPlugin(new ValidationPlugin());
+        start(new ValidationPlugin(), args);
+    }
+
+    /**
+     * Sobe a aplicação com um ValidationPlugin já configurado (usado pelo teste de carga)
+     */
+    public static void start(ValidationPlugin validationPlugin, String[] args){
+        // @UniqueEmail consulta o índice de e-mails do repositório em lotes
+        validationPlugin.registerAsyncConstraint(UniqueEmail.class, new UniqueEmailValidator(UserRepository::findExistingEmails));
+        registerPlugin(validationPlugin);
         WebServerApplication.run(Application.class, args);
     }
 }
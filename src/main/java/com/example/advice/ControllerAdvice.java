@@ -1,14 +1,13 @@
 package com.example.advice;
 
 import com.vcinsidedigital.webcore.validation.handlers.ValidHandler;
+import com.vcinsidedigital.webcore.validation.handlers.ValidationErrorRenderer;
 import com.vcinsidedigital.webcore.validation.exception.ValidationException;
 import com.vcinsidedigital.webcore.http.HttpResponse;
 import com.google.gson.Gson;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Classe utilitária para tratar exceções e validações nos controllers
@@ -17,6 +16,9 @@ public class ControllerAdvice {
 
     private static final Gson gson = new Gson();
 
+    private static final ValidationErrorRenderer validationErrorRenderer = new ValidationErrorRenderer(
+            "Validation Error", "Os dados enviados são inválidos", "erros", "campo", "mensagem", "valorRecebido");
+
     /**
      * Verifica se há erros de validação e retorna a resposta apropriada
      * Retorna null se não houver erros
@@ -32,29 +34,10 @@ public class ControllerAdvice {
      * Trata ValidationException e retorna HttpResponse formatado
      */
     public static HttpResponse handleValidationException(ValidationException e) {
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("status", 400);
-        errorResponse.put("error", "Validation Error");
-        errorResponse.put("message", "Os dados enviados são inválidos");
-
-        List<Map<String, Object>> errors = e.getErrors().stream()
-                .map(error -> {
-                    Map<String, Object> errorMap = new HashMap<>();
-                    errorMap.put("campo", error.getField());
-                    errorMap.put("mensagem", error.getMessage());
-                    if (error.getRejectedValue() != null) {
-                        errorMap.put("valorRecebido", error.getRejectedValue());
-                    }
-                    return errorMap;
-                })
-                .collect(Collectors.toList());
-
-        errorResponse.put("erros", errors);
-
         return new HttpResponse()
                 .status(400)
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(gson.toJson(errorResponse));
+                .body(validationErrorRenderer.render(e.getErrors()));
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.example.dto;
 
+import com.example.validation.UniqueEmail;
 import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
 
 public class UserDto
@@ -11,6 +12,7 @@ public class UserDto
 
     @NotNull(message = "Email cannot be null")
     @Email(message = "Invalid email format")
+    @UniqueEmail(message = "Email is already registered")
     private String email;
 
     public UserDto() {
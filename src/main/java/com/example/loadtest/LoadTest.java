@@ -0,0 +1,338 @@
+package com.example.loadtest;
+
+import com.example.Application;
+import com.vcinsidedigital.webcore.validation.ValidationPlugin;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação de exemplo no mesmo processo e dispara
+ * POST /create a partir de vários clientes concorrentes.
+ *
+ * Uso: LoadTest [opção=valor ...] [-- argumentos da aplicação]
+ *   url=http://localhost:8080   endereço da aplicação
+ *   clients=32                  clientes concorrentes
+ *   warmup=5                    segundos de aquecimento (não medidos)
+ *   duration=30                 segundos medidos
+ *   mix=valid:70,invalid:20,oversized:5,malformed:5
+ *   oversizedBytes=1048576      tamanho do payload grande
+ *   bypassValidation=false      registra o ValidationPlugin sem validar (mede o custo da validação)
+ *   startServer=true            false para apontar para uma aplicação já em execução
+ */
+public class LoadTest
+{
+    private static final AtomicLong sequence = new AtomicLong();
+    // Threads do lado cliente: ficam fora da alocação atribuída ao servidor
+    private static final String CLIENT_THREAD_PREFIX = "load-test-client-";
+    // Executor e selector do HttpClient: vivem o teste inteiro, medidos por snapshot como clientes
+    private static final String[] HTTP_CLIENT_THREAD_PREFIXES = {CLIENT_THREAD_PREFIX + "http-", "HttpClient-"};
+    // A thread principal só espera os workers e não entra em nenhum dos lados
+    private static final String DRIVER_THREAD = "main";
+
+    private enum PayloadKind { VALID, INVALID, OVERSIZED, MALFORMED }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("url", "http://localhost:8080");
+        options.put("clients", "32");
+        options.put("warmup", "5");
+        options.put("duration", "30");
+        options.put("mix", "valid:70,invalid:20,oversized:5,malformed:5");
+        options.put("oversizedBytes", "1048576");
+        options.put("bypassValidation", "false");
+        options.put("startServer", "true");
+
+        String[] applicationArgs = new String[0];
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--")) {
+                applicationArgs = Arrays.copyOfRange(args, i + 1, args.length);
+                break;
+            }
+            String[] pair = args[i].split("=", 2);
+            if (pair.length != 2 || !options.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i]);
+            }
+            options.put(pair[0], pair[1]);
+        }
+
+        String url = options.get("url");
+        int clients = Integer.parseInt(options.get("clients"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int duration = Integer.parseInt(options.get("duration"));
+        int oversizedBytes = Integer.parseInt(options.get("oversizedBytes"));
+        boolean bypassValidation = Boolean.parseBoolean(options.get("bypassValidation"));
+        PayloadKind[] mix = parseMix(options.get("mix"));
+
+        if (Boolean.parseBoolean(options.get("startServer"))) {
+            startServer(bypassValidation, applicationArgs);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, clients / 4), clientThreads("http")))
+                .build();
+        waitUntilReady(client, url, Duration.ofSeconds(30));
+
+        String oversizedName = "x".repeat(oversizedBytes);
+        URI target = URI.create(url + "/create");
+
+        System.out.println("Options: " + options);
+        System.out.println("Warming up for " + warmup + "s...");
+        run(client, target, clients, warmup, mix, oversizedName);
+
+        System.out.println("Measuring for " + duration + "s...");
+        Map<Long, Long> serverBefore = allocatedBytes(LoadTest::isServerThread);
+        Map<Long, Long> httpClientBefore = allocatedBytes(LoadTest::isHttpClientThread);
+        long start = System.nanoTime();
+        Result result = run(client, target, clients, duration, mix, oversizedName);
+        long elapsedNanos = System.nanoTime() - start;
+        long serverAllocated = allocatedSince(serverBefore, LoadTest::isServerThread);
+        // Workers medem a si mesmos; o HttpClient entra pela diferença dos snapshots
+        long clientAllocated = result.clientAllocated + allocatedSince(httpClientBefore, LoadTest::isHttpClientThread);
+
+        report(result, elapsedNanos, serverAllocated, clientAllocated, bypassValidation);
+        System.exit(0);
+    }
+
+    private static void startServer(boolean bypassValidation, String[] applicationArgs) {
+        Thread server = new Thread(() -> Application.start(
+                new ValidationPlugin().bypassValidation(bypassValidation), applicationArgs), "load-test-server");
+        server.setDaemon(true);
+        server.start();
+    }
+
+    private static void waitUntilReady(HttpClient client, String url, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(url + "/")).timeout(Duration.ofSeconds(2)).GET().build();
+        while (System.nanoTime() < deadline) {
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (Exception e) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("Aplicação não respondeu em " + url + " dentro de " + timeout.toSeconds() + "s");
+    }
+
+    private static Result run(HttpClient client, URI target, int clients, int seconds,
+                              PayloadKind[] mix, String oversizedName) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(clients, clientThreads("worker"));
+        List<Future<Result>> futures = new ArrayList<>();
+
+        for (int i = 0; i < clients; i++) {
+            futures.add(workers.submit(() -> {
+                Result local = new Result();
+                // Medido pela própria thread antes de terminar: não se perde quando o pool é encerrado
+                long allocatedBefore = currentThreadAllocatedBytes();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    PayloadKind kind = mix[random.nextInt(mix.length)];
+                    HttpRequest request = HttpRequest.newBuilder(target)
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(payload(kind, oversizedName)))
+                            .build();
+
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        local.record(kind, response.statusCode(), System.nanoTime() - begin);
+                    } catch (Exception e) {
+                        local.record(kind, -1, System.nanoTime() - begin);
+                    }
+                }
+                local.clientAllocated = currentThreadAllocatedBytes() - allocatedBefore;
+                return local;
+            }));
+        }
+
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        workers.shutdown();
+        return total;
+    }
+
+    private static String payload(PayloadKind kind, String oversizedName) {
+        long n = sequence.incrementAndGet();
+        switch (kind) {
+            case VALID:
+                return "{\"name\":\"Load User " + n + "\",\"email\":\"load" + n + "@example.com\"}";
+            case INVALID:
+                return "{\"name\":\"\",\"email\":\"not-an-email\"}";
+            case OVERSIZED:
+                return "{\"name\":\"" + oversizedName + "\",\"email\":\"big" + n + "@example.com\"}";
+            default:
+                return "{\"name\":\"Broken " + n + "\",\"email\":";
+        }
+    }
+
+    /**
+     * Expande "valid:70,invalid:20,..." em uma tabela de 100 posições para sorteio
+     */
+    private static PayloadKind[] parseMix(String mix) {
+        List<PayloadKind> table = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            PayloadKind kind = PayloadKind.valueOf(pair[0].trim().toUpperCase());
+            int weight = Integer.parseInt(pair[1].trim());
+            for (int i = 0; i < weight; i++) {
+                table.add(kind);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("mix vazio: " + mix);
+        }
+        return table.toArray(new PayloadKind[0]);
+    }
+
+    private static ThreadFactory clientThreads(String role) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, CLIENT_THREAD_PREFIX + role + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        return threads == null ? 0 : Math.max(0, threads.getThreadAllocatedBytes(Thread.currentThread().threadId()));
+    }
+
+    /**
+     * Bytes alocados até agora por cada thread viva aceita pelo filtro, por id de thread
+     */
+    private static Map<Long, Long> allocatedBytes(Predicate<Thread> filter) {
+        Map<Long, Long> allocated = new HashMap<>();
+        com.sun.management.ThreadMXBean threads = threadBean();
+        if (threads == null) {
+            return allocated;
+        }
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (filter.test(thread)) {
+                long bytes = threads.getThreadAllocatedBytes(thread.threadId());
+                if (bytes > 0) {
+                    allocated.put(thread.threadId(), bytes);
+                }
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Soma, por thread, o que cada uma alocou desde o snapshot (threads novas contam inteiras).
+     * Threads que terminaram durante a medição não entram: o valor é um limite inferior.
+     */
+    private static long allocatedSince(Map<Long, Long> before, Predicate<Thread> filter) {
+        long total = 0;
+        for (Map.Entry<Long, Long> entry : allocatedBytes(filter).entrySet()) {
+            total += Math.max(0, entry.getValue() - before.getOrDefault(entry.getKey(), 0L));
+        }
+        return total;
+    }
+
+    private static boolean isServerThread(Thread thread) {
+        return !thread.getName().startsWith(CLIENT_THREAD_PREFIX) && !isHttpClientThread(thread)
+                && !thread.getName().equals(DRIVER_THREAD);
+    }
+
+    private static boolean isHttpClientThread(Thread thread) {
+        for (String prefix : HTTP_CLIENT_THREAD_PREFIXES) {
+            if (thread.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void report(Result result, long elapsedNanos, long serverAllocated, long clientAllocated,
+                               boolean bypassValidation) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long[] latencies = Arrays.copyOf(result.latencies, result.count);
+        Arrays.sort(latencies);
+
+        System.out.println();
+        System.out.println("=== Load test (" + (bypassValidation ? "validation bypassed" : "validation enabled") + ") ===");
+        System.out.printf("Requests:    %d in %.1fs (%.0f req/s)%n", result.count, seconds, result.count / seconds);
+        System.out.printf("Latency:     p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                percentile(latencies, 99.9), percentile(latencies, 100));
+        System.out.printf("Allocation:  server %.1f MB/s (%.1f KB/request); clients %.1f KB/request%n",
+                serverAllocated / seconds / (1024 * 1024),
+                perRequestKb(serverAllocated, result.count),
+                perRequestKb(clientAllocated, result.count));
+        System.out.println("Status by payload:");
+        for (Map.Entry<String, Long> entry : result.statuses.entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    private static double perRequestKb(long bytes, int requests) {
+        return requests == 0 ? 0.0 : bytes / (double) requests / 1024;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * Resultado de um cliente; cada thread tem o seu e eles são somados no final
+     */
+    private static class Result {
+        private long[] latencies = new long[4096];
+        private int count;
+        private long clientAllocated;
+        private final Map<String, Long> statuses = new LinkedHashMap<>();
+
+        void record(PayloadKind kind, int status, long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            statuses.merge(kind.name().toLowerCase() + " -> " + (status < 0 ? "error" : String.valueOf(status)), 1L, Long::sum);
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            clientAllocated += other.clientAllocated;
+            other.statuses.forEach((key, value) -> statuses.merge(key, value, Long::sum));
+        }
+    }
+}
@@ -4,9 +4,12 @@ import com.example.model.User;
 import com.vcinsidedigital.webcore.annotations.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -15,6 +18,9 @@ public class UserRepository
 {
     private final Map<Long, User> database = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    // Índice de e-mails: a busca em lote não depende do tamanho da base.
+    // Estático porque a @UniqueEmail é registrada na Application, fora da instância injetada
+    private static final Set<String> emails = ConcurrentHashMap.newKeySet();
 
     public UserRepository() {
         // Dados iniciais
@@ -31,11 +37,27 @@ public class UserRepository
         return Optional.ofNullable(database.get(id));
     }
 
+    /**
+     * Busca em lote: retorna quais dos e-mails informados já estão cadastrados
+     */
+    public static Set<String> findExistingEmails(Collection<String> candidates) {
+        Set<String> existing = new HashSet<>();
+        for (String email : candidates) {
+            if (emails.contains(email)) {
+                existing.add(email);
+            }
+        }
+        return existing;
+    }
+
     public User save(User user) {
         if (user.getId() == null) {
             user.setId(idGenerator.getAndIncrement());
         }
         database.put(user.getId(), user);
+        if (user.getEmail() != null) {
+            emails.add(user.getEmail());
+        }
         return user;
     }
 }
@@ -0,0 +1,15 @@
+package com.example.validation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Verifica (de forma assíncrona) se o e-mail ainda não está cadastrado
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface UniqueEmail {
+    String message() default "Email is already registered";
+}
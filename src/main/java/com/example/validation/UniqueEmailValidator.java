@@ -0,0 +1,45 @@
+package com.example.validation;
+
+import com.vcinsidedigital.webcore.validation.validator.AsyncConstraintValidator;
+import com.vcinsidedigital.webcore.validation.validator.BatchLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Agrupa as consultas de e-mail de requests concorrentes em uma única busca no repositório
+ */
+public class UniqueEmailValidator implements AsyncConstraintValidator<UniqueEmail> {
+
+    private final BatchLoader<String, Boolean> registered;
+
+    /**
+     * @param findExisting recebe um lote de e-mails e retorna os que já estão cadastrados
+     */
+    public UniqueEmailValidator(Function<Set<String>, Set<String>> findExisting) {
+        this.registered = new BatchLoader<>(emails -> {
+            Set<String> existing = findExisting.apply(emails);
+            Map<String, Boolean> result = new HashMap<>();
+            for (String email : emails) {
+                result.put(email, existing.contains(email));
+            }
+            return result;
+        }, 5, 100);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValid(UniqueEmail annotation, Object value) {
+        if (!(value instanceof String)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return registered.load((String) value).thenApply(exists -> !Boolean.TRUE.equals(exists));
+    }
+
+    @Override
+    public String getMessage(UniqueEmail annotation) {
+        return annotation.message();
+    }
+}
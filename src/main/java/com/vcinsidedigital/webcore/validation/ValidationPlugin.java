@@ -3,16 +3,211 @@ package com.vcinsidedigital.webcore.validation;
 import com.vcinsidedigital.webcore.WebServerApplication;
 import com.vcinsidedigital.webcore.annotations.Plugin;
 import com.vcinsidedigital.webcore.extensibility.AnnotationHandlerRegistry;
+import com.vcinsidedigital.webcore.extensibility.ParameterContext;
 import com.vcinsidedigital.webcore.plugin.AbstractPlugin;
+import com.vcinsidedigital.webcore.validation.handlers.EndpointSettings;
 import com.vcinsidedigital.webcore.validation.handlers.ValidHandler;
+import com.vcinsidedigital.webcore.validation.handlers.ValidationMetrics;
+import com.vcinsidedigital.webcore.validation.handlers.ValidationPolicy;
+import com.vcinsidedigital.webcore.validation.validator.AsyncConstraintValidator;
+import com.vcinsidedigital.webcore.validation.validator.ClassConstraintValidator;
+import com.vcinsidedigital.webcore.validation.validator.ConstraintValidator;
+import com.vcinsidedigital.webcore.validation.validator.RulesFileWatcher;
+import com.vcinsidedigital.webcore.validation.validator.ValidationEngine;
+import com.vcinsidedigital.webcore.validation.validator.ValidationLimits;
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+import com.vcinsidedigital.webcore.validation.validator.Validator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Path;
+import java.util.function.Predicate;
 
 @Plugin
 public class ValidationPlugin extends AbstractPlugin
 {
+    // Um único handler por carga da biblioteca: o registry do web-core não remove handlers, então
+    // cada onLoad (inclusive de um novo ValidationPlugin depois de um redeploy) só religa este ao seu engine
+    private static ValidHandler handler;
+
+    private final ValidationPolicy policy = new ValidationPolicy();
+    // Configuração acumulada pelos métodos fluentes; o engine é criado no onLoad
+    private final ValidationEngine.Builder config = ValidationEngine.builder();
+    private ValidationEngine validator;
+    private Path rulesFile;
+    private RulesFileWatcher rulesWatcher;
+
+    /**
+     * When enabled, @Valid parameters are still deserialized but never validated.
+     * Meant for measuring the validation overhead, not for production use.
+     */
+    public ValidationPlugin bypassValidation(boolean bypassValidation) {
+        policy.setBypassValidation(bypassValidation);
+        return this;
+    }
+
+    /**
+     * Mode used by every @Valid parameter without a more specific setting.
+     */
+    public ValidationPlugin defaultMode(ValidationMode mode) {
+        return defaultMode(mode, 100);
+    }
+
+    /**
+     * @param samplePercent percentage (0-100) of the requests validated in SAMPLED mode
+     */
+    public ValidationPlugin defaultMode(ValidationMode mode, int samplePercent) {
+        policy.setDefaultSettings(new EndpointSettings(mode, samplePercent));
+        return this;
+    }
+
+    /**
+     * Mode for every @Valid parameter of the given DTO type, unless the @Valid annotation sets one.
+     */
+    public ValidationPlugin mode(Class<?> dtoType, ValidationMode mode) {
+        return mode(dtoType, mode, 100);
+    }
+
+    /**
+     * @param samplePercent percentage (0-100) of the requests validated in SAMPLED mode
+     */
+    public ValidationPlugin mode(Class<?> dtoType, ValidationMode mode, int samplePercent) {
+        policy.setTypeSettings(dtoType, new EndpointSettings(mode, samplePercent));
+        return this;
+    }
+
+    /**
+     * Requests accepted by this predicate skip validation on TRUSTED_BYPASS endpoints.
+     */
+    public ValidationPlugin trustedRequests(Predicate<ParameterContext> trustedRequest) {
+        policy.setTrustedRequest(trustedRequest);
+        return this;
+    }
+
+    /**
+     * Caps the number of violations collected per request and the size of each rejected value.
+     */
+    public ValidationPlugin limits(ValidationLimits limits) {
+        config.limits(limits);
+        if (validator != null) {
+            validator.setLimits(limits);
+        }
+        return this;
+    }
+
+    /**
+     * JSON file with constraint rules that override or add constraints per DTO class and field.
+     * It is watched for changes and new validation plans are swapped in without a restart.
+     */
+    public ValidationPlugin rulesFile(Path rulesFile) {
+        this.rulesFile = rulesFile;
+        return this;
+    }
+
+    public ValidationMetrics getMetrics() {
+        return policy.getMetrics();
+    }
+
+    /**
+     * The engine owned by this plugin, or null while it is not loaded.
+     */
+    public ValidationEngine getValidator() {
+        return validator;
+    }
+
+    /**
+     * Registers a custom constraint annotation. It is resolved into the validation plan of
+     * each DTO class just like the built-in annotations.
+     */
+    public <A extends Annotation> ValidationPlugin registerConstraint(Class<A> annotationType, ConstraintValidator<A> validator) {
+        config.constraint(annotationType, validator);
+        if (this.validator != null) {
+            this.validator.registerConstraint(annotationType, validator);
+        }
+        return this;
+    }
+
+    public <A extends Annotation> ValidationPlugin registerAsyncConstraint(Class<A> annotationType, AsyncConstraintValidator<A> validator) {
+        config.asyncConstraint(annotationType, validator);
+        if (this.validator != null) {
+            this.validator.registerAsyncConstraint(annotationType, validator);
+        }
+        return this;
+    }
+
+    public <A extends Annotation> ValidationPlugin registerClassConstraint(Class<A> annotationType, ClassConstraintValidator<A> validator) {
+        config.classConstraint(annotationType, validator);
+        if (this.validator != null) {
+            this.validator.registerClassConstraint(annotationType, validator);
+        }
+        return this;
+    }
+
     @Override
     public void onLoad(WebServerApplication application) {
-        AnnotationHandlerRegistry registry = AnnotationHandlerRegistry.getInstance();
-        registry.registerParameterHandler(new ValidHandler());
+        // Recarga sem onUnload: libera o engine anterior antes de criar outro
+        if (validator != null) {
+            onUnload(application);
+        }
+
+        ValidationEngine engine = config.build();
+        // Regras primeiro: um arquivo inválido na carga falha o onLoad sem deixar nada instalado
+        if (rulesFile != null) {
+            try {
+                rulesWatcher = RulesFileWatcher.start(rulesFile, engine::applyRules);
+            } catch (IOException e) {
+                engine.close();
+                throw new UncheckedIOException("Could not watch rules file " + rulesFile, e);
+            } catch (RuntimeException e) {
+                engine.close();
+                throw e;
+            }
+        }
+
+        validator = engine;
+        Validator.setDefault(validator);
+
+        synchronized (ValidationPlugin.class) {
+            if (handler == null) {
+                handler = new ValidHandler(policy, validator);
+                AnnotationHandlerRegistry registry = AnnotationHandlerRegistry.getInstance();
+                registry.registerParameterHandler(handler);
+            } else {
+                handler.attach(policy, validator);
+            }
+        }
+    }
+
+    /**
+     * Stops the rules watcher, detaches the @Valid handler and closes the engine, so nothing keeps the
+     * application's DTO classes, validators (and their class loader) reachable after a redeploy.
+     * <p>
+     * AbstractPlugin only has onLoad/onStart callbacks, so this is not called by web-core: call it from
+     * the host's undeploy/shutdown hook. A later onLoad, of this or another ValidationPlugin, also calls it
+     * for the engine it replaces. Safe to call more than once.
+     */
+    public void onUnload(WebServerApplication application) {
+        if (rulesWatcher != null) {
+            try {
+                rulesWatcher.close();
+            } catch (IOException e) {
+                System.err.println("[Validation] Could not stop watching " + rulesFile + ": " + e.getMessage());
+            }
+            rulesWatcher = null;
+        }
+        if (validator != null) {
+            synchronized (ValidationPlugin.class) {
+                // Outro plugin pode já ter religado o handler ao seu engine
+                if (handler != null && handler.isAttachedTo(validator)) {
+                    handler.detach();
+                }
+            }
+            // Tira o engine do Validator antes de fechá-lo: chamadas estáticas nunca veem um engine fechado
+            Validator.releaseDefault(validator);
+            validator.close();
+            validator = null;
+        }
     }
 
     @Override
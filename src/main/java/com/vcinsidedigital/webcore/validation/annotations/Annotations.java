@@ -1,5 +1,7 @@
 package com.vcinsidedigital.webcore.validation.annotations;
 
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+
 import java.lang.annotation.*;
 
 
@@ -32,6 +34,8 @@ public class Annotations {
         int min() default 0;
         int max() default Integer.MAX_VALUE;
         String message() default "Field size is invalid";
+        // Count strings in code points (emoji = 1) instead of UTF-16 chars
+        boolean codePoints() default false;
     }
 
     // Min
@@ -65,10 +69,48 @@ public class Annotations {
         String message() default "Field does not match the required pattern";
     }
 
+    // FieldsMatch (class-level): field must be equal to otherField
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Repeatable(FieldsMatch.List.class)
+    public @interface FieldsMatch {
+        String field();
+        String otherField();
+        String path() default "";
+        String message() default "{field} must match {otherField}";
+
+        @Retention(RetentionPolicy.RUNTIME)
+        @Target(ElementType.TYPE)
+        @interface List {
+            FieldsMatch[] value();
+        }
+    }
+
+    // FieldAfter (class-level): field must be greater than otherField (dates, numbers, any Comparable)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Repeatable(FieldAfter.List.class)
+    public @interface FieldAfter {
+        String field();
+        String otherField();
+        String path() default "";
+        String message() default "{field} must be after {otherField}";
+
+        @Retention(RetentionPolicy.RUNTIME)
+        @Target(ElementType.TYPE)
+        @interface List {
+            FieldAfter[] value();
+        }
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.PARAMETER)
     public @interface Valid {
-
+        // DEFAULT uses the mode configured in ValidationPlugin for the DTO
+        ValidationMode mode() default ValidationMode.DEFAULT;
+        int samplePercent() default 100;
+        // On a String parameter: validate the body against this DTO's constraints and pass it through unchanged
+        Class<?> schema() default void.class;
     }
 }
 
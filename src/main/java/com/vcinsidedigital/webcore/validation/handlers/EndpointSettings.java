@@ -0,0 +1,36 @@
+package com.vcinsidedigital.webcore.validation.handlers;
+
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+
+/**
+ * Validation mode of one endpoint or DTO type.
+ */
+public final class EndpointSettings {
+
+    public static final EndpointSettings FULL = new EndpointSettings(ValidationMode.FULL, 100);
+
+    private final ValidationMode mode;
+    private final int samplePercent;
+
+    /**
+     * @param samplePercent percentage (0-100) of the requests validated in SAMPLED mode
+     */
+    public EndpointSettings(ValidationMode mode, int samplePercent) {
+        if (mode == ValidationMode.DEFAULT) {
+            throw new IllegalArgumentException("DEFAULT is not a concrete validation mode");
+        }
+        if (samplePercent < 0 || samplePercent > 100) {
+            throw new IllegalArgumentException("samplePercent must be between 0 and 100");
+        }
+        this.mode = mode;
+        this.samplePercent = samplePercent;
+    }
+
+    public ValidationMode getMode() {
+        return mode;
+    }
+
+    public int getSamplePercent() {
+        return samplePercent;
+    }
+}
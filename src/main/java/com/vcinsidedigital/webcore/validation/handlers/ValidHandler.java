@@ -1,25 +1,97 @@
 package com.vcinsidedigital.webcore.validation.handlers;
 
 import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
+import com.vcinsidedigital.webcore.validation.validator.JsonSchema;
+import com.vcinsidedigital.webcore.validation.validator.ValidationEngine;
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+import com.vcinsidedigital.webcore.validation.validator.ValidationPlan;
 import com.vcinsidedigital.webcore.validation.validator.Validator;
 import com.vcinsidedigital.webcore.validation.exception.ValidationException;
 import com.vcinsidedigital.webcore.extensibility.ParameterAnnotationHandler;
 import com.vcinsidedigital.webcore.extensibility.ParameterContext;
 import com.vcinsidedigital.webcore.http.HttpResponse;
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.lang.annotation.Annotation;
+import java.io.StringReader;
 import java.lang.reflect.Parameter;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ValidHandler implements ParameterAnnotationHandler {
 
-    private final Gson gson = new Gson();
+    // Política, engine e bindings em uso; null depois do detach (plugin descarregado)
+    private volatile Attachment attachment;
     private static final ThreadLocal<ValidationResult> validationResult = new ThreadLocal<>();
 
+    // Resposta constante: renderizada uma única vez
+    private static final ValidationException EMPTY_BODY_EXCEPTION = new ValidationException(
+            List.of(new ValidationException.FieldError("body", "Request body is required", null))
+    );
+    // Sufixo que o Gson (2.x) coloca nas mensagens de erro de parsing e no toString() do JsonReader;
+    // não é API pública: se o formato mudar, a resposta cai para apenas o path do reader
+    private static final Pattern READER_LOCATION = Pattern.compile("at line (\\d+) column (\\d+) path (\\S*)");
+    private static final String EMPTY_BODY_RESPONSE = ValidationErrorRenderer.DEFAULT.render(EMPTY_BODY_EXCEPTION.getErrors());
+
+    public ValidHandler() {
+        this(new ValidationPolicy());
+    }
+
+    /**
+     * @param policy define o modo de validação de cada endpoint (configurado pelo ValidationPlugin)
+     */
+    public ValidHandler(ValidationPolicy policy) {
+        this(policy, Validator.getDefault());
+    }
+
+    /**
+     * @param validator engine usado na validação (o ValidationPlugin passa o seu)
+     */
+    public ValidHandler(ValidationPolicy policy, ValidationEngine validator) {
+        attachment = new Attachment(policy, validator);
+    }
+
+    /**
+     * Passa a validar com outro engine (recarga do plugin), descartando os bindings do anterior.
+     * O handler continua registrado; só o que ele referencia muda.
+     */
+    public void attach(ValidationPolicy policy, ValidationEngine validator) {
+        attachment = new Attachment(policy, validator);
+    }
+
+    /**
+     * Solta política, engine e bindings, para que o handler (que o registry do web-core mantém)
+     * não segure as classes da aplicação depois de um redeploy. Até o próximo attach, o canHandle
+     * recusa todos os parâmetros e o resolveParameter falha com IllegalStateException.
+     */
+    public void detach() {
+        attachment = null;
+    }
+
+    public boolean isAttachedTo(ValidationEngine validator) {
+        Attachment current = attachment;
+        return current != null && current.validator == validator;
+    }
+
+    private Attachment attached() {
+        Attachment current = attachment;
+        if (current == null) {
+            throw new IllegalStateException("ValidHandler is detached: the ValidationPlugin is not loaded");
+        }
+        return current;
+    }
+
     @Override
     public Class<? extends Annotation> getAnnotationType() {
         return Valid.class;
@@ -27,57 +99,142 @@ public class ValidHandler implements ParameterAnnotationHandler {
 
     @Override
     public boolean canHandle(Parameter parameter) {
-        return parameter.isAnnotationPresent(Valid.class);
+        // Desligado, não reclama nenhum parâmetro: o registry segue para os outros handlers
+        Attachment current = attachment;
+        return current != null && current.binding(parameter) != Binding.NONE;
     }
 
     @Override
     public Object resolveParameter(Parameter parameter, ParameterContext context) throws Exception {
         // Limpa o resultado anterior
         validationResult.remove();
+        Attachment current = attached();
 
         // Get the request body
         String body = context.getBody();
 
         if (body == null || body.trim().isEmpty()) {
             // Armazena erro de body vazio
-            ValidationException emptyBodyException = new ValidationException(
-                    List.of(new ValidationException.FieldError("body", "Request body is required", null))
-            );
-            validationResult.set(new ValidationResult(null, emptyBodyException));
+            validationResult.set(new ValidationResult(null, EMPTY_BODY_EXCEPTION));
 
             // Retorna null - o controller precisa verificar hasErrors()
             return null;
         }
 
-        // Deserialize to the target type
-        Class<?> parameterType = parameter.getType();
+        Binding binding = current.binding(parameter);
+
+        // Deserialize to the target type (no modo schema, só os valores que as constraints leem)
         Object dto;
 
+        JsonReader reader = new JsonReader(new StringReader(body));
+        reader.setLenient(true);
         try {
-            dto = gson.fromJson(body, parameterType);
+            dto = binding.schema != null ? binding.schema.read(reader) : binding.adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            }
         } catch (Exception e) {
+            // Não devolve o body: informa apenas onde o parser parou
             ValidationException parseException = new ValidationException(
-                    List.of(new ValidationException.FieldError("body", "Invalid JSON format", body))
+                    List.of(new ValidationException.FieldError("body", "Invalid JSON format", location(e, reader)))
             );
             validationResult.set(new ValidationResult(null, parseException));
             return null;
         }
 
-        // Validate the DTO
+        // No modo schema o controller recebe o body original, sem re-serialização
+        Object value = binding.schema != null ? body : dto;
+
+        if (current.policy.isBypassValidation()) {
+            validationResult.set(new ValidationResult(value, null));
+            return value;
+        }
+
+        EndpointSettings settings = binding.settings;
+        switch (settings.getMode()) {
+            case TRUSTED_BYPASS:
+                if (current.policy.isTrusted(context)) {
+                    current.policy.getMetrics().recordBypass();
+                    validationResult.set(new ValidationResult(value, null));
+                    return value;
+                }
+                break;
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextInt(100) < settings.getSamplePercent()) {
+                    // Só registra as violações nas métricas; o request segue normalmente
+                    current.validator.validateAsync(binding.plan, dto, Integer.MAX_VALUE).whenComplete((ignored, error) -> current.policy.getMetrics()
+                            .recordSample(binding.type, error == null ? Collections.emptyList() : violations(error)));
+                }
+                validationResult.set(new ValidationResult(value, null));
+                return value;
+            default:
+                break;
+        }
+
+        int maxErrors = settings.getMode() == ValidationMode.FAIL_FAST ? 1 : Integer.MAX_VALUE;
+
+        // Validate the DTO (constraints síncronas e depois as assíncronas)
         try {
-            Validator.validate(dto);
+            current.validator.validateAsync(binding.plan, dto, maxErrors).join();
             // Validação passou - armazena sucesso
-            validationResult.set(new ValidationResult(dto, null));
-            return dto;
+            validationResult.set(new ValidationResult(value, null));
+            return value;
 
-        } catch (ValidationException e) {
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof ValidationException)) {
+                throw e;
+            }
             // Validação falhou - armazena erro
-            validationResult.set(new ValidationResult(dto, e));
+            validationResult.set(new ValidationResult(value, (ValidationException) e.getCause()));
             // Retorna o DTO mesmo com erros - o controller decide o que fazer
-            return dto;
+            return value;
         }
     }
 
+    /**
+     * Linha, coluna e path do erro: primeiro os da mensagem da exceção (MalformedJsonException,
+     * IllegalStateException embrulhada em JsonSyntaxException), depois a posição atual do reader
+     * (erros sem localização, como NumberFormatException ou conteúdo após o documento)
+     */
+    private static Map<String, Object> location(Throwable error, JsonReader reader) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            Map<String, Object> location = location(cause.getMessage());
+            if (location != null) {
+                return location;
+            }
+        }
+
+        Map<String, Object> location = location(reader.toString());
+        if (location == null) {
+            location = new LinkedHashMap<>();
+            location.put("path", reader.getPath());
+        }
+        return location;
+    }
+
+    private static Map<String, Object> location(String message) {
+        if (message == null) {
+            return null;
+        }
+        Matcher matcher = READER_LOCATION.matcher(message);
+        if (!matcher.find()) {
+            return null;
+        }
+        Map<String, Object> location = new LinkedHashMap<>();
+        location.put("line", Integer.parseInt(matcher.group(1)));
+        location.put("column", Integer.parseInt(matcher.group(2)));
+        location.put("path", matcher.group(3));
+        return location;
+    }
+
+    private static List<ValidationException.FieldError> violations(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof ValidationException) {
+            return ((ValidationException) cause).getErrors();
+        }
+        return Collections.emptyList();
+    }
+
     /**
      * Verifica se há erros de validação no request atual
      */
@@ -103,30 +260,14 @@ public class ValidHandler implements ParameterAnnotationHandler {
             return null;
         }
 
-        Gson gson = new Gson();
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("status", 400);
-        errorResponse.put("error", "Validation Error");
-        errorResponse.put("message", "Request validation failed");
-
-        List<Map<String, Object>> errors = e.getErrors().stream()
-                .map(error -> {
-                    Map<String, Object> errorMap = new HashMap<>();
-                    errorMap.put("field", error.getField());
-                    errorMap.put("message", error.getMessage());
-                    if (error.getRejectedValue() != null) {
-                        errorMap.put("rejectedValue", error.getRejectedValue());
-                    }
-                    return errorMap;
-                })
-                .collect(Collectors.toList());
-
-        errorResponse.put("errors", errors);
+        String body = e == EMPTY_BODY_EXCEPTION
+                ? EMPTY_BODY_RESPONSE
+                : ValidationErrorRenderer.DEFAULT.render(e.getErrors());
 
         return new HttpResponse()
                 .status(400)
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(gson.toJson(errorResponse));
+                .body(body);
     }
 
     /**
@@ -160,4 +301,85 @@ public class ValidHandler implements ParameterAnnotationHandler {
             return dto;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * O que o handler usa enquanto está ligado a um engine; trocado inteiro no attach/detach,
+     * então um request nunca mistura a política de um engine com os planos de outro
+     */
+    private final class Attachment {
+        final ValidationPolicy policy;
+        final ValidationEngine validator;
+        // Guarda os adapters de todos os DTOs: descartado junto com o attachment
+        final Gson gson = new Gson();
+        // Tipo, adapter, plano e modo de cada parâmetro @Valid, resolvidos no primeiro uso.
+        // Parameter.equals compara executable + índice, então cópias do mesmo parâmetro caem na mesma entrada.
+        final Map<Parameter, Binding> bindings = new ConcurrentHashMap<>();
+
+        Attachment(ValidationPolicy policy, ValidationEngine validator) {
+            this.policy = policy;
+            this.validator = validator;
+        }
+
+        /**
+         * Busca sem lock; só recria o binding no primeiro uso ou quando o plano/configuração mudou
+         */
+        private Binding binding(Parameter parameter) {
+            Binding binding = bindings.get(parameter);
+            if (binding == null || !binding.isCurrent(policy)) {
+                binding = createBinding(parameter);
+                bindings.put(parameter, binding);
+            }
+            return binding;
+        }
+
+        private Binding createBinding(Parameter parameter) {
+            Valid valid = parameter.getAnnotation(Valid.class);
+            if (valid == null) {
+                return Binding.NONE;
+            }
+            // Lê a versão antes de resolver: uma mudança concorrente força nova resolução no próximo request
+            int version = policy.getVersion();
+
+            if (valid.schema() != void.class) {
+                if (parameter.getType() != String.class) {
+                    throw new IllegalStateException("@Valid(schema = ...) requires a String parameter: " + parameter);
+                }
+                JsonSchema schema = validator.getSchema(valid.schema());
+                return new Binding(valid.schema(), null, schema, schema.getPlan(), policy.resolve(parameter), version);
+            }
+
+            Class<?> type = parameter.getType();
+            return new Binding(type, gson.getAdapter(type), null, validator.getPlan(type), policy.resolve(parameter), version);
+        }
+    }
+
+    /**
+     * Tudo que um parâmetro @Valid precisa por request, resolvido uma única vez (imutável)
+     */
+    private static final class Binding {
+        // Parâmetro sem @Valid: cache negativo do canHandle
+        static final Binding NONE = new Binding(null, null, null, null, null, 0);
+
+        final Class<?> type;
+        final TypeAdapter<?> adapter;
+        // Presente só em @Valid(schema = ...): o body é validado sem virar DTO
+        final JsonSchema schema;
+        final ValidationPlan plan;
+        final EndpointSettings settings;
+        final int policyVersion;
+
+        Binding(Class<?> type, TypeAdapter<?> adapter, JsonSchema schema, ValidationPlan plan, EndpointSettings settings,
+                int policyVersion) {
+            this.type = type;
+            this.adapter = adapter;
+            this.schema = schema;
+            this.plan = plan;
+            this.settings = settings;
+            this.policyVersion = policyVersion;
+        }
+
+        boolean isCurrent(ValidationPolicy policy) {
+            return plan == null || (!plan.isStale() && policyVersion == policy.getVersion());
+        }
+    }
+}
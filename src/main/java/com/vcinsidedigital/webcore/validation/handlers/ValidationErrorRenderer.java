@@ -0,0 +1,99 @@
+package com.vcinsidedigital.webcore.validation.handlers;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+import com.vcinsidedigital.webcore.validation.validator.JsonStrings;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Writes validation error bodies straight into a character buffer.
+ * The envelope and keys are encoded once here; field names and messages arrive already encoded
+ * by the validation plans (see {@link JsonStrings#appendField}) and are escaped here when they do not.
+ * Output is escaped the same way as Gson's default writer.
+ */
+public final class ValidationErrorRenderer {
+
+    public static final ValidationErrorRenderer DEFAULT = new ValidationErrorRenderer(
+            "Validation Error", "Request validation failed", "errors", "field", "message", "rejectedValue");
+
+    private final Gson gson = new Gson();
+    private final String envelopeStart;
+    private final String fieldPrefix;
+    private final String messagePrefix;
+    private final String rejectedValuePrefix;
+    private final String emptyBody;
+
+    /**
+     * @param error   value of the "error" entry of the envelope
+     * @param message value of the "message" entry of the envelope
+     */
+    public ValidationErrorRenderer(String error, String message, String errorsKey,
+                                   String fieldKey, String messageKey, String rejectedValueKey) {
+        this.envelopeStart = "{\"status\":400,\"error\":" + JsonStrings.quote(error)
+                + ",\"message\":" + JsonStrings.quote(message)
+                + "," + JsonStrings.quote(errorsKey) + ":[";
+        this.fieldPrefix = "{" + JsonStrings.quote(fieldKey) + ":";
+        this.messagePrefix = "," + JsonStrings.quote(messageKey) + ":";
+        this.rejectedValuePrefix = "," + JsonStrings.quote(rejectedValueKey) + ":";
+        this.emptyBody = envelopeStart + "]}";
+    }
+
+    public String render(List<FieldError> errors) {
+        if (errors.isEmpty()) {
+            return emptyBody;
+        }
+
+        StringBuilder out = new StringBuilder(envelopeStart.length() + errors.size() * 96);
+        out.append(envelopeStart);
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeError(out, errors.get(i));
+        }
+        return out.append("]}").toString();
+    }
+
+    private void writeError(StringBuilder out, FieldError error) {
+        out.append(fieldPrefix);
+        JsonStrings.appendField(out, error);
+        out.append(messagePrefix);
+        JsonStrings.appendMessage(out, error);
+
+        Object rejectedValue = error.getRejectedValue();
+        if (rejectedValue != null) {
+            out.append(rejectedValuePrefix);
+            writeValue(out, rejectedValue);
+        }
+        out.append('}');
+    }
+
+    /**
+     * The name Gson writes for an enum constant: its @SerializedName value, or the constant name.
+     */
+    private static String enumName(Enum<?> constant) {
+        try {
+            SerializedName serializedName = constant.getDeclaringClass().getField(constant.name())
+                    .getAnnotation(SerializedName.class);
+            return serializedName != null ? serializedName.value() : constant.name();
+        } catch (NoSuchFieldException e) {
+            return constant.name();
+        }
+    }
+
+    private void writeValue(StringBuilder out, Object value) {
+        if (value instanceof String) {
+            JsonStrings.appendQuoted(out, (String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Enum) {
+            // Not through Gson: its adapter cache would keep the application's enum class reachable from DEFAULT
+            JsonStrings.appendQuoted(out, enumName((Enum<?>) value));
+        } else {
+            out.append(gson.toJson(value));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vcinsidedigital.webcore.validation.handlers;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the requests that are not fully validated (SAMPLED and TRUSTED_BYPASS modes).
+ */
+public class ValidationMetrics {
+
+    private final LongAdder sampledRequests = new LongAdder();
+    private final LongAdder sampledRequestsWithViolations = new LongAdder();
+    private final LongAdder bypassedRequests = new LongAdder();
+    private final Map<String, LongAdder> violations = new ConcurrentHashMap<>();
+
+    void recordSample(Class<?> type, List<FieldError> errors) {
+        sampledRequests.increment();
+        if (errors.isEmpty()) {
+            return;
+        }
+
+        sampledRequestsWithViolations.increment();
+        for (FieldError error : errors) {
+            violations.computeIfAbsent(type.getSimpleName() + "." + error.getField(), key -> new LongAdder()).increment();
+        }
+    }
+
+    void recordBypass() {
+        bypassedRequests.increment();
+    }
+
+    public long getSampledRequests() {
+        return sampledRequests.sum();
+    }
+
+    public long getSampledRequestsWithViolations() {
+        return sampledRequestsWithViolations.sum();
+    }
+
+    public long getBypassedRequests() {
+        return bypassedRequests.sum();
+    }
+
+    /**
+     * Violations seen in sampled requests, keyed by "DtoType.field".
+     */
+    public Map<String, Long> getViolations() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        violations.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,74 @@
+package com.vcinsidedigital.webcore.validation.handlers;
+
+import com.vcinsidedigital.webcore.extensibility.ParameterContext;
+import com.vcinsidedigital.webcore.validation.annotations.Annotations.Valid;
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Decides how each @Valid parameter is validated. Configured through ValidationPlugin.
+ */
+public class ValidationPolicy {
+
+    private volatile boolean bypassValidation;
+    private volatile EndpointSettings defaultSettings = EndpointSettings.FULL;
+    private volatile Predicate<ParameterContext> trustedRequest = context -> false;
+    private final Map<Class<?>, EndpointSettings> typeSettings = new ConcurrentHashMap<>();
+    private final ValidationMetrics metrics = new ValidationMetrics();
+
+    // Bumped whenever endpoint settings change, so cached per-parameter settings are resolved again
+    private final AtomicInteger version = new AtomicInteger();
+
+    public void setBypassValidation(boolean bypassValidation) {
+        this.bypassValidation = bypassValidation;
+    }
+
+    public boolean isBypassValidation() {
+        return bypassValidation;
+    }
+
+    public void setDefaultSettings(EndpointSettings defaultSettings) {
+        this.defaultSettings = defaultSettings;
+        version.incrementAndGet();
+    }
+
+    public void setTypeSettings(Class<?> dtoType, EndpointSettings settings) {
+        typeSettings.put(dtoType, settings);
+        version.incrementAndGet();
+    }
+
+    public void setTrustedRequest(Predicate<ParameterContext> trustedRequest) {
+        this.trustedRequest = trustedRequest;
+    }
+
+    public boolean isTrusted(ParameterContext context) {
+        return trustedRequest.test(context);
+    }
+
+    public int getVersion() {
+        return version.get();
+    }
+
+    public ValidationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The @Valid attributes win over the per-DTO configuration, which wins over the default.
+     */
+    public EndpointSettings resolve(Parameter parameter) {
+        Valid valid = parameter.getAnnotation(Valid.class);
+        if (valid != null && valid.mode() != ValidationMode.DEFAULT) {
+            return new EndpointSettings(valid.mode(), valid.samplePercent());
+        }
+
+        Class<?> dtoType = valid != null && valid.schema() != void.class ? valid.schema() : parameter.getType();
+        EndpointSettings settings = typeSettings.get(dtoType);
+        return settings != null ? settings : defaultSettings;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthesizes constraint annotations from external rules, so rule-defined constraints are
+ * compiled by the same {@link ConstraintValidator}s as the declared ones.
+ */
+final class AnnotationProxy {
+
+    private AnnotationProxy() {
+    }
+
+    /**
+     * @param base      declared annotation whose values are kept unless overridden; may be null
+     * @param overrides attribute values from the rules file
+     */
+    static Annotation create(Class<? extends Annotation> type, Annotation base, Map<String, JsonElement> overrides) {
+        Map<String, Object> values = new HashMap<>();
+        for (Method attribute : type.getDeclaredMethods()) {
+            String name = attribute.getName();
+            JsonElement override = overrides.get(name);
+
+            Object value;
+            if (override != null) {
+                value = convert(override, attribute.getReturnType(), type, name);
+            } else if (base != null) {
+                value = read(base, attribute);
+            } else {
+                value = attribute.getDefaultValue();
+            }
+
+            if (value == null) {
+                throw new IllegalArgumentException("Missing required attribute '" + name + "' for @" + type.getSimpleName());
+            }
+            values.put(name, value);
+        }
+
+        for (String name : overrides.keySet()) {
+            if (!values.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown attribute '" + name + "' for @" + type.getSimpleName());
+            }
+        }
+
+        String description = "@" + type.getName() + values;
+        return (Annotation) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "annotationType":
+                    return type;
+                case "toString":
+                    return description;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return values.get(method.getName());
+            }
+        });
+    }
+
+    private static Object read(Annotation annotation, Method attribute) {
+        try {
+            return attribute.invoke(annotation);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Error reading @" + annotation.annotationType().getSimpleName()
+                    + "." + attribute.getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(JsonElement json, Class<?> target, Class<?> type, String name) {
+        try {
+            if (target == String.class) {
+                return json.getAsString();
+            } else if (target == int.class) {
+                return json.getAsInt();
+            } else if (target == long.class) {
+                return json.getAsLong();
+            } else if (target == boolean.class) {
+                return json.getAsBoolean();
+            } else if (target == double.class) {
+                return json.getAsDouble();
+            } else if (target == float.class) {
+                return json.getAsFloat();
+            } else if (target == short.class) {
+                return json.getAsShort();
+            } else if (target == byte.class) {
+                return json.getAsByte();
+            } else if (target == char.class) {
+                return json.getAsString().charAt(0);
+            } else if (target.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) target, json.getAsString());
+            } else if (target.isArray() && json.isJsonArray()) {
+                JsonArray elements = json.getAsJsonArray();
+                Object array = Array.newInstance(target.getComponentType(), elements.size());
+                for (int i = 0; i < elements.size(); i++) {
+                    Array.set(array, i, convert(elements.get(i), target.getComponentType(), type, name));
+                }
+                return array;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value " + json + " for @" + type.getSimpleName() + "." + name, e);
+        }
+        throw new IllegalArgumentException("Unsupported attribute type " + target.getSimpleName()
+                + " for @" + type.getSimpleName() + "." + name);
+    }
+}
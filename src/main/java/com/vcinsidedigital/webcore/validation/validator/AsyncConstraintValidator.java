@@ -0,0 +1,22 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Constraint that needs I/O to decide (e.g. a uniqueness lookup).
+ * Async constraints only run after every synchronous constraint of the object has passed.
+ */
+public interface AsyncConstraintValidator<A extends Annotation> {
+
+    /**
+     * Completes with {@code true} when the value is valid. Must not block the calling thread.
+     * <p>
+     * A future still pending after {@link ValidationLimits#getAsyncTimeout()} is reported as a violation with
+     * {@link ValidationPlan#TIMEOUT_MESSAGE}, so the request does not wait for it. The work behind it is not
+     * cancelled: implementations should bound their own I/O (e.g. the batch function of a {@link BatchLoader}).
+     */
+    CompletableFuture<Boolean> isValid(A annotation, Object value);
+
+    String getMessage(A annotation);
+}
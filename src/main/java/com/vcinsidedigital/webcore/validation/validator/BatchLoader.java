@@ -0,0 +1,111 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups issued within a short window into one batched query.
+ * Concurrent requests asking for the same key share the same future.
+ */
+public class BatchLoader<K, V> {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> newThread(runnable, "webcore-validation-batch-timer"));
+
+    private static final Executor defaultExecutor = Executors.newCachedThreadPool(
+            runnable -> newThread(runnable, "webcore-validation-batch"));
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> window;
+
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, long windowMillis, int maxBatchSize) {
+        this(batchFunction, windowMillis, maxBatchSize, defaultExecutor);
+    }
+
+    /**
+     * @param batchFunction returns the value for each requested key; missing keys resolve to {@code null}
+     * @param windowMillis  how long the first lookup of a batch waits for others to join it
+     * @param maxBatchSize  dispatches the batch early once it holds this many keys
+     * @param executor      runs the batch function, which may block
+     */
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, long windowMillis, int maxBatchSize, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.batchFunction = batchFunction;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * The pools are created lazily from a request thread and outlive the application that triggered them:
+     * their threads must not inherit (and pin) that application's context class loader.
+     */
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.setContextClassLoader(BatchLoader.class.getClassLoader());
+        return thread;
+    }
+
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+
+        synchronized (lock) {
+            if (window == null) {
+                Map<K, CompletableFuture<V>> opened = new LinkedHashMap<>();
+                window = opened;
+                scheduler.schedule(() -> flush(opened), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            future = window.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (window.size() >= maxBatchSize) {
+                full = window;
+                window = null;
+            }
+        }
+
+        if (full != null) {
+            Map<K, CompletableFuture<V>> batch = full;
+            executor.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    private void flush(Map<K, CompletableFuture<V>> expired) {
+        synchronized (lock) {
+            // Already dispatched because it reached maxBatchSize
+            if (window != expired) {
+                return;
+            }
+            window = null;
+        }
+        executor.execute(() -> dispatch(expired));
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> results = batchFunction.apply(batch.keySet());
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                entry.getValue().complete(results.get(entry.getKey()));
+            }
+        } catch (Throwable t) {
+            for (CompletableFuture<V> future : batch.values()) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Implementations of the annotations in {@link com.vcinsidedigital.webcore.validation.annotations.Annotations}.
+ */
+final class BuiltInConstraints {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    private BuiltInConstraints() {
+    }
+
+    static final ConstraintValidator<NotNull> NOT_NULL = (annotation, field) -> notNull(annotation.message());
+    static final ConstraintValidator<NotEmpty> NOT_EMPTY = (annotation, field) -> notEmpty(annotation.message());
+    static final ConstraintValidator<NotBlank> NOT_BLANK = (annotation, field) -> notBlank(annotation.message());
+    static final ConstraintValidator<Size> SIZE = (annotation, field) ->
+            size(annotation.min(), annotation.max(), annotation.codePoints(), sizeMessage(annotation));
+    static final ConstraintValidator<Email> EMAIL = (annotation, field) -> email(annotation.message());
+
+    /**
+     * Built-in constraints in the order they are evaluated on a field.
+     */
+    static Map<Class<? extends Annotation>, ConstraintValidator<?>> defaults() {
+        Map<Class<? extends Annotation>, ConstraintValidator<?>> constraints = new LinkedHashMap<>();
+        put(constraints, NotNull.class, NOT_NULL);
+        put(constraints, NotEmpty.class, NOT_EMPTY);
+        put(constraints, NotBlank.class, NOT_BLANK);
+        put(constraints, Size.class, SIZE);
+        put(constraints, Min.class, (annotation, field) -> min(annotation.value(), annotation.message()));
+        put(constraints, Max.class, (annotation, field) -> max(annotation.value(), annotation.message()));
+        put(constraints, Email.class, EMAIL);
+        put(constraints, com.vcinsidedigital.webcore.validation.annotations.Annotations.Pattern.class,
+                (annotation, field) -> pattern(annotation.regexp(), annotation.message()));
+        return constraints;
+    }
+
+    /**
+     * Built-in class-level constraints, evaluated after the field constraints.
+     */
+    static Map<Class<? extends Annotation>, ClassConstraintValidator<?>> classDefaults() {
+        Map<Class<? extends Annotation>, ClassConstraintValidator<?>> constraints = new LinkedHashMap<>();
+        putClass(constraints, FieldsMatch.class, (annotation, accessors) -> fieldsMatch(
+                accessors.apply(annotation.field()), accessors.apply(annotation.otherField()),
+                target(annotation.path(), annotation.field()),
+                crossFieldMessage(annotation.message(), annotation.field(), annotation.otherField())));
+        putClass(constraints, FieldAfter.class, (annotation, accessors) -> fieldAfter(
+                accessors.apply(annotation.field()), accessors.apply(annotation.otherField()),
+                target(annotation.path(), annotation.field()),
+                crossFieldMessage(annotation.message(), annotation.field(), annotation.otherField())));
+        return constraints;
+    }
+
+    private static <A extends Annotation> void put(Map<Class<? extends Annotation>, ConstraintValidator<?>> constraints,
+                                                   Class<A> annotationType, ConstraintValidator<A> validator) {
+        constraints.put(annotationType, validator);
+    }
+
+    private static <A extends Annotation> void putClass(Map<Class<? extends Annotation>, ClassConstraintValidator<?>> constraints,
+                                                        Class<A> annotationType, ClassConstraintValidator<A> validator) {
+        constraints.put(annotationType, validator);
+    }
+
+    private static String target(String path, String field) {
+        return path.isEmpty() ? field : path;
+    }
+
+    private static String crossFieldMessage(String message, String field, String otherField) {
+        return message.replace("{field}", field).replace("{otherField}", otherField);
+    }
+
+    static FieldConstraint notNull(String message) {
+        return value -> value == null ? message : null;
+    }
+
+    static FieldConstraint notEmpty(String message) {
+        return value -> {
+            if (value == null) {
+                return message;
+            }
+            if (value instanceof String && ((String) value).isEmpty()) {
+                return message;
+            }
+            if (value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+                return message;
+            }
+            return null;
+        };
+    }
+
+    static FieldConstraint notBlank(String message) {
+        return value -> {
+            if (value == null || (value instanceof String && ((String) value).trim().isEmpty())) {
+                return message;
+            }
+            return null;
+        };
+    }
+
+    static String sizeMessage(Size annotation) {
+        return annotation.message()
+                .replace("{min}", String.valueOf(annotation.min()))
+                .replace("{max}", String.valueOf(annotation.max()));
+    }
+
+    /**
+     * @param codePoints measure strings in code points instead of UTF-16 chars
+     */
+    static FieldConstraint size(int min, int max, boolean codePoints, String message) {
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+
+            int size = 0;
+            if (value instanceof String) {
+                String text = (String) value;
+                size = codePoints ? text.codePointCount(0, text.length()) : text.length();
+            } else if (value instanceof Collection) {
+                size = ((Collection<?>) value).size();
+            } else if (value.getClass().isArray()) {
+                size = java.lang.reflect.Array.getLength(value);
+            }
+
+            return size < min || size > max ? message : null;
+        };
+    }
+
+    static FieldConstraint min(long min, String message) {
+        String resolved = message.replace("{value}", String.valueOf(min));
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+            long numValue = value instanceof Number ? ((Number) value).longValue() : 0;
+            return numValue < min ? resolved : null;
+        };
+    }
+
+    static FieldConstraint max(long max, String message) {
+        String resolved = message.replace("{value}", String.valueOf(max));
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+            long numValue = value instanceof Number ? ((Number) value).longValue() : 0;
+            return numValue > max ? resolved : null;
+        };
+    }
+
+    static FieldConstraint email(String message) {
+        return value -> {
+            if (value instanceof String && !EMAIL_PATTERN.matcher((String) value).matches()) {
+                return message;
+            }
+            return null;
+        };
+    }
+
+    static FieldConstraint pattern(String regexp, String message) {
+        Pattern compiled = Pattern.compile(regexp);
+        return value -> {
+            if (value instanceof String && !compiled.matcher((String) value).matches()) {
+                return message;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Skipped when either value is null; use @NotNull on the fields to require them.
+     * Cross-field errors carry no rejected value: the fields are often secrets (password / confirmation).
+     */
+    static ClassConstraint fieldsMatch(FieldAccessor field, FieldAccessor otherField, String path, String message) {
+        return object -> {
+            Object value = field.get(object);
+            Object other = otherField.get(object);
+            if (value == null || other == null || Objects.equals(value, other)) {
+                return null;
+            }
+            return new FieldError(path, message, null);
+        };
+    }
+
+    /**
+     * Both fields must be Comparable with each other; checked here so a wrong declaration fails when the plan
+     * is built instead of on every request.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ClassConstraint fieldAfter(FieldAccessor field, FieldAccessor otherField, String path, String message) {
+        Class<?> type = boxed(field.getType());
+        Class<?> otherType = boxed(otherField.getType());
+        if (type != Object.class && otherType != Object.class) {
+            if (!Comparable.class.isAssignableFrom(type) || !Comparable.class.isAssignableFrom(otherType)) {
+                throw new IllegalArgumentException("@FieldAfter needs Comparable fields, got "
+                        + type.getSimpleName() + " and " + otherType.getSimpleName());
+            }
+            if (!type.isAssignableFrom(otherType) && !otherType.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("@FieldAfter cannot compare "
+                        + type.getSimpleName() + " with " + otherType.getSimpleName());
+            }
+        }
+
+        return object -> {
+            Object value = field.get(object);
+            Object other = otherField.get(object);
+            if (value == null || other == null) {
+                return null;
+            }
+            try {
+                if (!(value instanceof Comparable) || ((Comparable) value).compareTo(other) <= 0) {
+                    return new FieldError(path, message, null);
+                }
+            } catch (ClassCastException e) {
+                // Fields declared as Object/Comparable holding unrelated types: not "after" each other
+                return new FieldError(path, message, null);
+            }
+            return null;
+        };
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
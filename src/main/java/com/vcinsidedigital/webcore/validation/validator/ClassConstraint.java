@@ -0,0 +1,18 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+/**
+ * A class-level constraint compiled for one class, evaluated in the same pass as the field constraints.
+ */
+@FunctionalInterface
+public interface ClassConstraint {
+
+    /**
+     * @param object what the plan validates: an instance of the class, or the values a {@link JsonSchema} read
+     *               from unbound JSON. Read it only through the accessors given to
+     *               {@link ClassConstraintValidator#compile}; never cast it or inspect it directly.
+     * @return the error for the object, or {@code null} when it is valid
+     */
+    FieldError validate(Object object);
+}
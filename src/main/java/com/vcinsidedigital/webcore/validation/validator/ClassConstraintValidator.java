@@ -0,0 +1,22 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.lang.annotation.Annotation;
+import java.util.function.Function;
+
+/**
+ * Maps a class-level constraint annotation (e.g. a cross-field rule) to its implementation.
+ * <p>
+ * The same compiled constraint validates bound DTOs and unbound JSON ({@code @Valid(schema = ...)}, see
+ * {@link JsonSchema}), where the object it receives is not an instance of the class. Implementations must
+ * read fields only through {@code accessors}.
+ */
+@FunctionalInterface
+public interface ClassConstraintValidator<A extends Annotation> {
+
+    /**
+     * Called once per annotation when the validation plan of the class is built.
+     *
+     * @param accessors resolves a field name of the class into its accessor; fails if the field does not exist
+     */
+    ClassConstraint compile(A annotation, Function<String, FieldAccessor> accessors);
+}
@@ -0,0 +1,46 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the registered constraints, in evaluation order.
+ */
+final class ConstraintRegistry {
+
+    final Map<Class<? extends Annotation>, ConstraintValidator<?>> fieldConstraints;
+    final Map<Class<? extends Annotation>, AsyncConstraintValidator<?>> asyncConstraints;
+    final Map<Class<? extends Annotation>, ClassConstraintValidator<?>> classConstraints;
+
+    private ConstraintRegistry(Map<Class<? extends Annotation>, ConstraintValidator<?>> fieldConstraints,
+                               Map<Class<? extends Annotation>, AsyncConstraintValidator<?>> asyncConstraints,
+                               Map<Class<? extends Annotation>, ClassConstraintValidator<?>> classConstraints) {
+        this.fieldConstraints = Collections.unmodifiableMap(fieldConstraints);
+        this.asyncConstraints = Collections.unmodifiableMap(asyncConstraints);
+        this.classConstraints = Collections.unmodifiableMap(classConstraints);
+    }
+
+    static ConstraintRegistry defaults() {
+        return new ConstraintRegistry(BuiltInConstraints.defaults(), new LinkedHashMap<>(), BuiltInConstraints.classDefaults());
+    }
+
+    <A extends Annotation> ConstraintRegistry withConstraint(Class<A> annotationType, ConstraintValidator<A> validator) {
+        Map<Class<? extends Annotation>, ConstraintValidator<?>> updated = new LinkedHashMap<>(fieldConstraints);
+        updated.put(annotationType, validator);
+        return new ConstraintRegistry(updated, asyncConstraints, classConstraints);
+    }
+
+    <A extends Annotation> ConstraintRegistry withAsyncConstraint(Class<A> annotationType, AsyncConstraintValidator<A> validator) {
+        Map<Class<? extends Annotation>, AsyncConstraintValidator<?>> updated = new LinkedHashMap<>(asyncConstraints);
+        updated.put(annotationType, validator);
+        return new ConstraintRegistry(fieldConstraints, updated, classConstraints);
+    }
+
+    <A extends Annotation> ConstraintRegistry withClassConstraint(Class<A> annotationType, ClassConstraintValidator<A> validator) {
+        Map<Class<? extends Annotation>, ClassConstraintValidator<?>> updated = new LinkedHashMap<>(classConstraints);
+        updated.put(annotationType, validator);
+        return new ConstraintRegistry(fieldConstraints, asyncConstraints, updated);
+    }
+}
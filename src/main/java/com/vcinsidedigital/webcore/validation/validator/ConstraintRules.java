@@ -0,0 +1,145 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * External constraint rules that override or add field constraints per DTO class, e.g.
+ * <pre>
+ * {
+ *   "com.example.dto.UserDto": {
+ *     "name":  { "Size": { "max": 80 } },
+ *     "email": { "Pattern": { "regexp": ".+@example\\.com" }, "NotNull": false }
+ *   }
+ * }
+ * </pre>
+ * Each constraint is named by the simple or fully qualified name of its annotation. An object
+ * overrides the given attributes of the declared annotation (or adds the constraint with its
+ * defaults for the other attributes), {@code true} adds it with its defaults and
+ * {@code false}/{@code null} removes it.
+ */
+public final class ConstraintRules {
+
+    public static final ConstraintRules EMPTY = new ConstraintRules(Collections.emptyMap());
+
+    // class name -> field name -> constraint name -> rule
+    private final Map<String, Map<String, Map<String, JsonElement>>> rules;
+
+    private ConstraintRules(Map<String, Map<String, Map<String, JsonElement>>> rules) {
+        this.rules = rules;
+    }
+
+    public static ConstraintRules parse(String json) {
+        JsonElement root = JsonParser.parseString(json);
+        if (root.isJsonNull()) {
+            return EMPTY;
+        }
+
+        Map<String, Map<String, Map<String, JsonElement>>> rules = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> type : object(root, "rules").entrySet()) {
+            Map<String, Map<String, JsonElement>> fields = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> field : object(type.getValue(), type.getKey()).entrySet()) {
+                Map<String, JsonElement> constraints = new LinkedHashMap<>();
+                for (Map.Entry<String, JsonElement> constraint : object(field.getValue(), type.getKey() + "." + field.getKey()).entrySet()) {
+                    constraints.put(constraint.getKey(), constraint.getValue().deepCopy());
+                }
+                fields.put(field.getKey(), Collections.unmodifiableMap(constraints));
+            }
+            rules.put(type.getKey(), Collections.unmodifiableMap(fields));
+        }
+        return new ConstraintRules(Collections.unmodifiableMap(rules));
+    }
+
+    private static JsonObject object(JsonElement element, String path) {
+        if (!element.isJsonObject()) {
+            throw new IllegalArgumentException("Expected a JSON object at '" + path + "'");
+        }
+        return element.getAsJsonObject();
+    }
+
+    /**
+     * Names of the classes that have rules.
+     */
+    public Set<String> getClassNames() {
+        return rules.keySet();
+    }
+
+    boolean hasRules(Class<?> type) {
+        return rules.containsKey(type.getName());
+    }
+
+    /**
+     * Fails if a rule for the class names a field it does not declare or a constraint that is not registered.
+     */
+    void verify(Class<?> type, ConstraintRegistry registry) {
+        Map<String, Map<String, JsonElement>> fields = rules.get(type.getName());
+        if (fields == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Map<String, JsonElement>> field : fields.entrySet()) {
+            try {
+                type.getDeclaredField(field.getKey());
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException("Rules reference unknown field " + type.getName() + "." + field.getKey());
+            }
+
+            for (String constraint : field.getValue().keySet()) {
+                boolean known = false;
+                for (Class<? extends Annotation> annotationType : registry.fieldConstraints.keySet()) {
+                    known |= matches(annotationType, constraint);
+                }
+                if (!known) {
+                    throw new IllegalArgumentException("Rules reference unknown constraint '" + constraint
+                            + "' on " + type.getName() + "." + field.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the annotation that applies to the field once the rules are taken into account;
+     * {@code null} when the constraint is absent or removed.
+     */
+    Annotation apply(Class<?> type, Field field, Class<? extends Annotation> annotationType, Annotation declared) {
+        Map<String, Map<String, JsonElement>> fields = rules.get(type.getName());
+        Map<String, JsonElement> constraints = fields == null ? null : fields.get(field.getName());
+        if (constraints == null) {
+            return declared;
+        }
+
+        for (Map.Entry<String, JsonElement> constraint : constraints.entrySet()) {
+            if (!matches(annotationType, constraint.getKey())) {
+                continue;
+            }
+
+            JsonElement rule = constraint.getValue();
+            if (rule.isJsonNull() || (rule.isJsonPrimitive() && !rule.getAsBoolean())) {
+                return null;
+            }
+            if (rule.isJsonPrimitive()) {
+                return declared != null ? declared : AnnotationProxy.create(annotationType, null, Collections.emptyMap());
+            }
+
+            Map<String, JsonElement> overrides = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> attribute : object(rule, type.getName() + "." + field.getName()).entrySet()) {
+                overrides.put(attribute.getKey(), attribute.getValue());
+            }
+            return AnnotationProxy.create(annotationType, declared, overrides);
+        }
+        return declared;
+    }
+
+    private static boolean matches(Class<? extends Annotation> annotationType, String name) {
+        return annotationType.getSimpleName().equals(name) || annotationType.getName().equals(name)
+                || annotationType.getCanonicalName().equals(name);
+    }
+}
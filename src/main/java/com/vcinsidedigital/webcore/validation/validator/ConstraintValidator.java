@@ -0,0 +1,14 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * Maps a constraint annotation to its implementation.
+ * {@link #compile} runs once per annotated field when the validation plan of a class is built.
+ */
+@FunctionalInterface
+public interface ConstraintValidator<A extends Annotation> {
+
+    FieldConstraint compile(A annotation, Field field);
+}
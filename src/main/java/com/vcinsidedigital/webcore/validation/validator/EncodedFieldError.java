@@ -0,0 +1,20 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+/**
+ * A FieldError built by a validation plan, carrying its field and message already quoted by
+ * {@link JsonStrings#quote}. Only this package creates them, so the encoded text always matches the raw values;
+ * renderers reach it through {@link JsonStrings#appendField} and {@link JsonStrings#appendMessage}.
+ */
+final class EncodedFieldError extends FieldError {
+
+    final String encodedField;
+    final String encodedMessage;
+
+    EncodedFieldError(String field, String message, Object rejectedValue, String encodedField, String encodedMessage) {
+        super(field, message, rejectedValue);
+        this.encodedField = encodedField;
+        this.encodedMessage = encodedMessage;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+/**
+ * Remembers the JSON encoding of the last string seen at one spot of a plan (one constraint's message).
+ * Constant messages are encoded once; a message that changes on every call only ever keeps one entry,
+ * which is dropped with the plan.
+ */
+final class EncodedText {
+
+    // Longer strings are encoded on every call instead of being kept
+    private static final int MAX_LENGTH = 256;
+
+    private volatile Entry last;
+
+    String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        Entry entry = last;
+        if (entry != null && entry.text.equals(text)) {
+            return entry.encoded;
+        }
+        String encoded = JsonStrings.quote(text);
+        if (text.length() <= MAX_LENGTH) {
+            last = new Entry(text, encoded);
+        }
+        return encoded;
+    }
+
+    private static final class Entry {
+        private final String text;
+        private final String encoded;
+
+        private Entry(String text, String encoded) {
+            this.text = text;
+            this.encoded = encoded;
+        }
+    }
+}
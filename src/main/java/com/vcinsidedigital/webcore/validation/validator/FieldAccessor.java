@@ -0,0 +1,17 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+/**
+ * Reads one field of a validated object. Resolved once when the validation plan is built.
+ */
+@FunctionalInterface
+public interface FieldAccessor {
+
+    Object get(Object object);
+
+    /**
+     * Declared type of the field, for checks done when the plan is built; {@code Object.class} when unknown.
+     */
+    default Class<?> getType() {
+        return Object.class;
+    }
+}
@@ -0,0 +1,14 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+/**
+ * A constraint compiled for one field. Built once per class by the validation plan and
+ * invoked on every validation, so implementations should precompute everything they can.
+ */
+@FunctionalInterface
+public interface FieldConstraint {
+
+    /**
+     * @return the error message, or {@code null} when the value is valid
+     */
+    String validate(Object value);
+}
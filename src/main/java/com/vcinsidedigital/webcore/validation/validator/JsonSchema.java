@@ -0,0 +1,251 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The constraints of a DTO class applied to JSON that is never bound to the DTO.
+ * <p>
+ * Only the properties read by a constraint are materialized, into an {@code Object[]} the plan validates
+ * through index accessors. Every other property is skipped in the token stream. Arrays and collections whose
+ * constraints only look at their size keep just their element count; other values are converted with Gson's
+ * adapter for the field type, so constraints see the same values they would see on the bound DTO.
+ * <p>
+ * Properties missing from the JSON keep the value Gson would leave on the DTO: the one found on an instance
+ * Gson builds from {@code {}} when the class has a no-arg constructor (field initializers included), or the
+ * zero value otherwise, since Gson then allocates the instance without running any constructor.
+ */
+public final class JsonSchema {
+
+    private final Class<?> type;
+    private final ValidationPlan plan;
+    // By JSON name, including @SerializedName alternates
+    private final Map<String, Property> properties;
+    private final Object[] defaults;
+
+    private JsonSchema(Class<?> type, ValidationPlan plan, Map<String, Property> properties, Object[] defaults) {
+        this.type = type;
+        this.plan = plan;
+        this.properties = properties;
+        this.defaults = defaults;
+    }
+
+    /**
+     * @param gson creates the adapters of the constrained fields; owned by the plan generation,
+     *             since Gson keeps every adapter it creates (application types included)
+     */
+    static JsonSchema compile(Class<?> type, ConstraintRegistry registry, ConstraintRules rules, AtomicBoolean retired,
+                              Gson gson) {
+        Map<Field, Integer> slots = new LinkedHashMap<>();
+        ValidationPlan plan = ValidationPlan.compile(type, registry, rules, retired, field -> {
+            int index = slots.computeIfAbsent(field, added -> slots.size());
+            return values -> ((Object[]) values)[index];
+        });
+
+        // Cross-field rules may compare whole values: never replace those with a stand-in
+        boolean comparesFields = false;
+        for (Class<? extends Annotation> annotationType : registry.classConstraints.keySet()) {
+            comparesFields |= type.getAnnotationsByType(annotationType).length > 0;
+        }
+
+        Object blank = blankInstance(type, gson);
+        Map<String, Property> properties = new HashMap<>();
+        Object[] defaults = new Object[slots.size()];
+        for (Map.Entry<Field, Integer> slot : slots.entrySet()) {
+            Field field = slot.getKey();
+            boolean sizeOnly = !comparesFields && onlyChecksSize(type, field, registry, rules);
+            Object defaultValue = blank != null ? ValidationPlan.accessor(field).get(blank) : zeroValue(field.getType());
+            Property property = new Property(slot.getValue(), field, defaultValue, sizeOnly, gson);
+            defaults[property.index] = defaultValue;
+
+            // Gson never binds these: they keep their default, as on the DTO
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                continue;
+            }
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            if (serializedName == null) {
+                properties.put(field.getName(), property);
+            } else {
+                properties.put(serializedName.value(), property);
+                for (String alternate : serializedName.alternate()) {
+                    properties.put(alternate, property);
+                }
+            }
+        }
+
+        return new JsonSchema(type, plan, properties, defaults);
+    }
+
+    /**
+     * The DTO as Gson binds it from an empty object, or null when Gson would not run a constructor.
+     */
+    private static Object blankInstance(Class<?> type, Gson gson) {
+        try {
+            type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return gson.fromJson("{}", type);
+    }
+
+    /**
+     * 0 / false for primitives, null otherwise, like a field no constructor has set.
+     */
+    private static Object zeroValue(Class<?> fieldType) {
+        return fieldType.isPrimitive() ? Array.get(Array.newInstance(fieldType, 1), 0) : null;
+    }
+
+    private static boolean onlyChecksSize(Class<?> type, Field field, ConstraintRegistry registry, ConstraintRules rules) {
+        for (Map.Entry<Class<? extends Annotation>, ConstraintValidator<?>> entry : registry.fieldConstraints.entrySet()) {
+            ConstraintValidator<?> validator = entry.getValue();
+            boolean present = rules.apply(type, field, entry.getKey(), field.getAnnotation(entry.getKey())) != null;
+            if (present && validator != BuiltInConstraints.NOT_NULL && validator != BuiltInConstraints.NOT_EMPTY
+                    && validator != BuiltInConstraints.SIZE) {
+                return false;
+            }
+        }
+        for (Class<? extends Annotation> annotationType : registry.asyncConstraints.keySet()) {
+            if (field.getAnnotation(annotationType) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * The plan to validate the values returned by {@link #read(JsonReader)} or {@link #read(JsonElement)}.
+     */
+    public ValidationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Reads one JSON object from the stream, keeping only the values the constraints need.
+     * Returns null for a JSON null, and fails like Gson would for anything that is not an object.
+     */
+    public Object[] read(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        Object[] values = defaults.clone();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Property property = properties.get(reader.nextName());
+            if (property == null) {
+                reader.skipValue();
+            } else {
+                values[property.index] = property.read(reader);
+            }
+        }
+        reader.endObject();
+        return values;
+    }
+
+    /**
+     * Same as {@link #read(JsonReader)} for a parsed tree.
+     */
+    public Object[] read(JsonElement json) {
+        if (json == null || json.isJsonNull()) {
+            return null;
+        }
+        if (!json.isJsonObject()) {
+            throw new JsonSyntaxException("Expected a JSON object for " + type.getSimpleName());
+        }
+
+        Object[] values = defaults.clone();
+        for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+            Property property = properties.get(entry.getKey());
+            if (property != null) {
+                values[property.index] = property.read(entry.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * A field read by at least one constraint.
+     */
+    private static final class Property {
+        private final int index;
+        // What a JSON null leaves on the DTO: Gson skips it for primitives and stores it otherwise
+        private final Object nullValue;
+        private final Class<?> arrayComponent;
+        // Only the element count matters: elements are skipped, never converted
+        private final boolean countOnly;
+        private final TypeAdapter<?> adapter;
+
+        Property(int index, Field field, Object defaultValue, boolean sizeOnly, Gson gson) {
+            Class<?> fieldType = field.getType();
+            this.index = index;
+            this.nullValue = fieldType.isPrimitive() ? defaultValue : null;
+            this.arrayComponent = fieldType.getComponentType();
+            this.countOnly = sizeOnly && (fieldType.isArray() || Collection.class.isAssignableFrom(fieldType));
+            this.adapter = gson.getAdapter(TypeToken.get(field.getGenericType()));
+        }
+
+        Object read(JsonReader reader) throws IOException {
+            JsonToken token = reader.peek();
+            if (token == JsonToken.NULL) {
+                reader.nextNull();
+                return nullValue;
+            }
+            if (token == JsonToken.BEGIN_ARRAY && countOnly) {
+                int size = 0;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                    size++;
+                }
+                reader.endArray();
+                return sized(size);
+            }
+            return adapter.read(reader);
+        }
+
+        Object read(JsonElement json) {
+            if (json.isJsonNull()) {
+                return nullValue;
+            }
+            if (json.isJsonArray() && countOnly) {
+                JsonArray array = json.getAsJsonArray();
+                return sized(array.size());
+            }
+            return adapter.fromJsonTree(json);
+        }
+
+        /**
+         * Stand-in with the right size for NotNull, NotEmpty and Size.
+         */
+        private Object sized(int size) {
+            if (arrayComponent != null) {
+                return Array.newInstance(arrayComponent, size);
+            }
+            return Collections.nCopies(size, null);
+        }
+    }
+}
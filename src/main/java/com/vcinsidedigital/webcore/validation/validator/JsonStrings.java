@@ -0,0 +1,102 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+/**
+ * Writes JSON string literals escaped the same way as Gson's default (HTML-safe) writer.
+ * Validation plans use it to encode field names and messages once, when they are compiled.
+ */
+public final class JsonStrings {
+
+    private static final String[] REPLACEMENT_CHARS = new String[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+        // HTML-safe, like Gson's default writer
+        REPLACEMENT_CHARS['<'] = "\\u003c";
+        REPLACEMENT_CHARS['>'] = "\\u003e";
+        REPLACEMENT_CHARS['&'] = "\\u0026";
+        REPLACEMENT_CHARS['='] = "\\u003d";
+        REPLACEMENT_CHARS['\''] = "\\u0027";
+    }
+
+    private JsonStrings() {
+    }
+
+    /**
+     * @return the value as a quoted JSON string, or {@code null} for a null value
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(value.length() + 2);
+        appendQuoted(out, value);
+        return out.toString();
+    }
+
+    /**
+     * Appends the field of an error as a JSON string (or {@code null}), reusing the encoding made when the
+     * validation plan was compiled if the error came from one.
+     */
+    public static void appendField(StringBuilder out, FieldError error) {
+        if (error instanceof EncodedFieldError && ((EncodedFieldError) error).encodedField != null) {
+            out.append(((EncodedFieldError) error).encodedField);
+        } else {
+            appendQuotedOrNull(out, error.getField());
+        }
+    }
+
+    /**
+     * Same as {@link #appendField} for the message of the error.
+     */
+    public static void appendMessage(StringBuilder out, FieldError error) {
+        if (error instanceof EncodedFieldError && ((EncodedFieldError) error).encodedMessage != null) {
+            out.append(((EncodedFieldError) error).encodedMessage);
+        } else {
+            appendQuotedOrNull(out, error.getMessage());
+        }
+    }
+
+    private static void appendQuotedOrNull(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            appendQuoted(out, value);
+        }
+    }
+
+    public static void appendQuoted(StringBuilder out, String value) {
+        out.append('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c < 128) {
+                replacement = REPLACEMENT_CHARS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            out.append(value, last, i).append(replacement);
+            last = i + 1;
+        }
+        out.append(value, last, length).append('"');
+    }
+}
@@ -0,0 +1,66 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One generation of compiled plans: the registry and rules they were built from, and the plans themselves.
+ * Plans are stored with their class (ClassValue), so the cache never keeps a DTO class or its class loader alive.
+ * A generation is never updated in place; a new one replaces it and this one is retired.
+ */
+final class PlanCache extends ClassValue<ValidationPlan> {
+
+    final ConstraintRegistry registry;
+    final ConstraintRules rules;
+
+    // Classes compiled so far, weakly: recompiled eagerly when the next generation is built
+    private final Set<Class<?>> types = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    // Shared with the plans instead of a reference to this cache: a plan reaching its ClassValue would keep
+    // the entry stored in the class strongly reachable and the generation alive as long as the class
+    private final AtomicBoolean retired = new AtomicBoolean();
+    // Gson caches the adapter of every type it has seen: it lives and dies with this generation
+    private final Gson gson = new Gson();
+
+    // Same constraints, applied to unbound JSON (see JsonSchema)
+    final ClassValue<JsonSchema> schemas = new ClassValue<JsonSchema>() {
+        @Override
+        protected JsonSchema computeValue(Class<?> type) {
+            JsonSchema schema = JsonSchema.compile(type, registry, rules, retired, gson);
+            types.add(type);
+            return schema;
+        }
+    };
+
+    PlanCache(ConstraintRegistry registry, ConstraintRules rules) {
+        this.registry = registry;
+        this.rules = rules;
+    }
+
+    @Override
+    protected ValidationPlan computeValue(Class<?> type) {
+        ValidationPlan plan = ValidationPlan.compile(type, registry, rules, retired);
+        types.add(type);
+        return plan;
+    }
+
+    List<Class<?>> types() {
+        synchronized (types) {
+            return new ArrayList<>(types);
+        }
+    }
+
+    boolean isRetired() {
+        return retired.get();
+    }
+
+    void retire() {
+        retired.set(true);
+        types.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+/**
+ * Watches a JSON rules file and publishes a new {@link ConstraintRules} every time it changes.
+ * After the initial load, a file that fails to parse or compile is reported and ignored; the previous rules
+ * stay active. The initial load in {@link #start} has no previous rules to keep, so it fails instead.
+ */
+public final class RulesFileWatcher implements Closeable {
+
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private final Path file;
+    private final Consumer<ConstraintRules> target;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private RulesFileWatcher(Path file, Consumer<ConstraintRules> target) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.target = target;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::watch, "webcore-validation-rules");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Loads the file once (a missing file means no rules; an invalid one fails here) and starts watching it.
+     */
+    public static RulesFileWatcher start(Path file, Consumer<ConstraintRules> target) throws IOException {
+        RulesFileWatcher watcher = new RulesFileWatcher(file, target);
+        try {
+            watcher.load();
+        } catch (RuntimeException | IOException e) {
+            watcher.watchService.close();
+            throw e;
+        }
+        watcher.thread.start();
+        return watcher;
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            target.accept(ConstraintRules.EMPTY);
+            return;
+        }
+        target.accept(ConstraintRules.parse(Files.readString(file)));
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+
+                if (changed) {
+                    // Editors often write a file in several steps
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Watcher closed
+        }
+    }
+
+    private void reload() {
+        try {
+            load();
+        } catch (Exception e) {
+            System.err.println("[Validation] Ignoring invalid rules file " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
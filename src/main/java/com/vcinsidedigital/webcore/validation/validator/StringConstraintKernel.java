@@ -0,0 +1,208 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The built-in @NotNull, @NotEmpty, @NotBlank, @Size and @Email of one String field fused into
+ * a single pass over its characters. Reports the same errors, in the same order, as the separate
+ * constraints, and allocates nothing when the value is valid.
+ */
+final class StringConstraintKernel {
+
+    private final String field;
+    private final String encodedField;
+    private final String notNullMessage;
+    private final String notEmptyMessage;
+    private final String notBlankMessage;
+    private final String sizeMessage;
+    private final int sizeMin;
+    private final int sizeMax;
+    private final boolean sizeCodePoints;
+    private final String emailMessage;
+    // Messages encoded as JSON strings once, for the error renderer
+    private final String encodedNotNull;
+    private final String encodedNotEmpty;
+    private final String encodedNotBlank;
+    private final String encodedSize;
+    private final String encodedEmail;
+
+    private StringConstraintKernel(String field, Map<Class<? extends Annotation>, Annotation> present) {
+        NotNull notNull = (NotNull) present.get(NotNull.class);
+        NotEmpty notEmpty = (NotEmpty) present.get(NotEmpty.class);
+        NotBlank notBlank = (NotBlank) present.get(NotBlank.class);
+        Size size = (Size) present.get(Size.class);
+        Email email = (Email) present.get(Email.class);
+
+        this.notNullMessage = notNull != null ? notNull.message() : null;
+        this.notEmptyMessage = notEmpty != null ? notEmpty.message() : null;
+        this.notBlankMessage = notBlank != null ? notBlank.message() : null;
+        this.sizeMessage = size != null ? BuiltInConstraints.sizeMessage(size) : null;
+        this.sizeMin = size != null ? size.min() : 0;
+        this.sizeMax = size != null ? size.max() : Integer.MAX_VALUE;
+        this.sizeCodePoints = size != null && size.codePoints();
+        this.emailMessage = email != null ? email.message() : null;
+
+        this.field = field;
+        this.encodedField = JsonStrings.quote(field);
+        this.encodedNotNull = JsonStrings.quote(notNullMessage);
+        this.encodedNotEmpty = JsonStrings.quote(notEmptyMessage);
+        this.encodedNotBlank = JsonStrings.quote(notBlankMessage);
+        this.encodedSize = JsonStrings.quote(sizeMessage);
+        this.encodedEmail = JsonStrings.quote(emailMessage);
+    }
+
+    /**
+     * Fuses the string constraints of a field, or returns {@code null} when the field is not a String,
+     * has none of them, or when fusing could change the result (a fusable annotation bound to a custom
+     * implementation, or @Min/@Max interleaved with them).
+     *
+     * @param present constraints of the field, in evaluation order
+     */
+    static StringConstraintKernel fuse(Field field, Map<Class<? extends Annotation>, Annotation> present,
+                                       ConstraintRegistry registry) {
+        if (field.getType() != String.class || present.containsKey(Min.class) || present.containsKey(Max.class)) {
+            return null;
+        }
+
+        boolean any = false;
+        for (Class<? extends Annotation> type : present.keySet()) {
+            ConstraintValidator<?> builtIn = builtIn(type);
+            if (builtIn == null) {
+                continue;
+            }
+            if (registry.fieldConstraints.get(type) != builtIn) {
+                return null;
+            }
+            any = true;
+        }
+        return any ? new StringConstraintKernel(field.getName(), present) : null;
+    }
+
+    static boolean covers(Class<? extends Annotation> type) {
+        return builtIn(type) != null;
+    }
+
+    private static ConstraintValidator<?> builtIn(Class<? extends Annotation> type) {
+        if (type == NotNull.class) {
+            return BuiltInConstraints.NOT_NULL;
+        } else if (type == NotEmpty.class) {
+            return BuiltInConstraints.NOT_EMPTY;
+        } else if (type == NotBlank.class) {
+            return BuiltInConstraints.NOT_BLANK;
+        } else if (type == Size.class) {
+            return BuiltInConstraints.SIZE;
+        } else if (type == Email.class) {
+            return BuiltInConstraints.EMAIL;
+        }
+        return null;
+    }
+
+    /**
+     * @return false once {@code maxErrors} violations have been collected
+     */
+    boolean validate(Object value, List<FieldError> errors, int maxErrors, ValidationLimits limits) {
+        if (value == null) {
+            return report(errors, notNullMessage, encodedNotNull, null, maxErrors, limits)
+                    && report(errors, notEmptyMessage, encodedNotEmpty, null, maxErrors, limits)
+                    && report(errors, notBlankMessage, encodedNotBlank, null, maxErrors, limits);
+        }
+
+        String text = (String) value;
+        int length = text.length();
+
+        boolean checkBlank = notBlankMessage != null;
+        boolean checkEmail = emailMessage != null;
+        boolean countCodePoints = sizeMessage != null && sizeCodePoints;
+
+        boolean blank = true;
+        int codePoints = 0;
+
+        // Email shape: ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
+        boolean emailValid = checkEmail;
+        int at = -1;
+        int lastDot = -1;
+        boolean tailLetters = false;
+
+        if (checkBlank || checkEmail || countCodePoints) {
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+
+                if (c > ' ') {
+                    blank = false;
+                    if (!checkEmail && !countCodePoints) {
+                        break;
+                    }
+                }
+
+                if (countCodePoints && !(Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(text.charAt(i - 1)))) {
+                    codePoints++;
+                }
+
+                if (emailValid) {
+                    if (at < 0) {
+                        if (c == '@') {
+                            at = i;
+                            emailValid = i > 0;
+                        } else {
+                            emailValid = isLocalChar(c);
+                        }
+                    } else if (c == '.') {
+                        lastDot = i;
+                        tailLetters = true;
+                    } else if (!isLetter(c)) {
+                        tailLetters = false;
+                        emailValid = c == '-' || (c >= '0' && c <= '9');
+                    }
+                }
+            }
+        }
+
+        if (emailValid) {
+            // Something before the last dot, and at least two letters after it
+            emailValid = at > 0 && lastDot > at + 1 && tailLetters && length - lastDot - 1 >= 2;
+        }
+
+        if (notEmptyMessage != null && length == 0
+                && !report(errors, notEmptyMessage, encodedNotEmpty, value, maxErrors, limits)) {
+            return false;
+        }
+        if (checkBlank && blank
+                && !report(errors, notBlankMessage, encodedNotBlank, value, maxErrors, limits)) {
+            return false;
+        }
+        if (sizeMessage != null) {
+            int size = sizeCodePoints ? codePoints : length;
+            if ((size < sizeMin || size > sizeMax)
+                    && !report(errors, sizeMessage, encodedSize, value, maxErrors, limits)) {
+                return false;
+            }
+        }
+        if (checkEmail && !emailValid) {
+            return report(errors, emailMessage, encodedEmail, value, maxErrors, limits);
+        }
+        return true;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private boolean report(List<FieldError> errors, String message, String encodedMessage, Object value,
+                           int maxErrors, ValidationLimits limits) {
+        if (message == null) {
+            return true;
+        }
+        errors.add(new EncodedFieldError(field, message, limits.summarize(value), encodedField, encodedMessage));
+        return errors.size() < maxErrors;
+    }
+}
@@ -0,0 +1,298 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException;
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.*;
+
+import com.google.gson.JsonElement;
+
+import java.io.Closeable;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A configured validator: registered constraints, external rules, limits and the plans compiled from them.
+ * Created through {@link #builder()} and owned by whoever configured it (normally the ValidationPlugin);
+ * the static {@link Validator} API delegates to a default instance.
+ * <p>
+ * Plans are cached per class without holding on to the class, and {@link #close()} drops them together with
+ * the registered constraints, so a closed engine never pins the DTO classes, validators (or class loaders)
+ * of an application that was redeployed.
+ */
+public final class ValidationEngine implements Closeable {
+
+    // Copy-on-write: every change publishes a new generation; readers never lock. Null once closed
+    private volatile PlanCache plans;
+    private volatile ValidationLimits limits;
+
+    private ValidationEngine(Builder builder) {
+        this.plans = new PlanCache(builder.registry, builder.rules);
+        this.limits = builder.limits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void setLimits(ValidationLimits limits) {
+        ensureOpen();
+        this.limits = limits;
+    }
+
+    public ValidationLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Registers (or replaces) the implementation of a constraint annotation.
+     * Custom constraints are evaluated after the built-in ones present on the same field.
+     */
+    public synchronized <A extends Annotation> void registerConstraint(Class<A> annotationType, ConstraintValidator<A> validator) {
+        PlanCache current = plans();
+        publish(new PlanCache(current.registry.withConstraint(annotationType, validator), current.rules));
+    }
+
+    public synchronized <A extends Annotation> void registerAsyncConstraint(Class<A> annotationType, AsyncConstraintValidator<A> validator) {
+        PlanCache current = plans();
+        publish(new PlanCache(current.registry.withAsyncConstraint(annotationType, validator), current.rules));
+    }
+
+    /**
+     * Registers (or replaces) the implementation of a class-level constraint annotation, such as a cross-field rule.
+     */
+    public synchronized <A extends Annotation> void registerClassConstraint(Class<A> annotationType, ClassConstraintValidator<A> validator) {
+        PlanCache current = plans();
+        publish(new PlanCache(current.registry.withClassConstraint(annotationType, validator), current.rules));
+    }
+
+    /**
+     * Compiles new plans for every class validated so far (and every loadable class named by the rules)
+     * and publishes them in one step. In-flight validations finish with the plans they started with.
+     * If any plan fails to compile, nothing changes and the exception is rethrown.
+     */
+    public synchronized void applyRules(ConstraintRules newRules) {
+        PlanCache current = plans();
+        PlanCache next = new PlanCache(current.registry, newRules);
+
+        for (Class<?> type : current.types()) {
+            next.get(type);
+        }
+        for (String className : newRules.getClassNames()) {
+            Class<?> type = loadClass(className);
+            if (type != null) {
+                next.get(type);
+            }
+        }
+
+        publish(next);
+    }
+
+    /**
+     * Drops every compiled plan, the registered constraints and the rules, and retires the plans handed out,
+     * so their holders stop using them. Any later use of the engine throws {@link IllegalStateException}.
+     * Called when the owning plugin unloads; closing twice does nothing.
+     */
+    @Override
+    public synchronized void close() {
+        PlanCache previous = plans;
+        if (previous != null) {
+            plans = null;
+            previous.retire();
+        }
+    }
+
+    private PlanCache plans() {
+        PlanCache current = plans;
+        if (current == null) {
+            throw new IllegalStateException("ValidationEngine is closed");
+        }
+        return current;
+    }
+
+    private void ensureOpen() {
+        plans();
+    }
+
+    /**
+     * Swaps the generation and only then retires the previous one, so whoever sees a stale plan
+     * already finds its successor (or compiles it) through getPlan.
+     */
+    private void publish(PlanCache next) {
+        PlanCache previous = plans();
+        plans = next;
+        previous.retire();
+    }
+
+    private static Class<?> loadClass(String className) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try {
+            return Class.forName(className, false, loader != null ? loader : ValidationEngine.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            // Not visible from here: the rules are applied when the class is first validated
+            return null;
+        }
+    }
+
+    /**
+     * Returns the compiled plan of a class, building it on first use.
+     */
+    public ValidationPlan getPlan(Class<?> type) {
+        return plans().get(type);
+    }
+
+    /**
+     * Returns the constraints of a class compiled for JSON that is never bound to it, building them on first use.
+     */
+    public JsonSchema getSchema(Class<?> type) {
+        return plans().schemas.get(type);
+    }
+
+    public void validate(Object object) throws ValidationException {
+        validate(object, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops collecting violations after {@code maxErrors} of them (1 = fail fast),
+     * or earlier if the configured {@link ValidationLimits} are lower.
+     */
+    public void validate(Object object, int maxErrors) throws ValidationException {
+        if (object == null) {
+            return;
+        }
+
+        validate(getPlan(object.getClass()), object, maxErrors);
+    }
+
+    /**
+     * Validates a JSON object against the constraints declared on {@code schemaType}, without binding it.
+     * Only the synchronous constraints run, as in {@link #validate(Object)}.
+     *
+     * @throws com.google.gson.JsonParseException if a constrained property cannot be converted to its field type
+     */
+    public void validateJson(Class<?> schemaType, JsonElement json) throws ValidationException {
+        JsonSchema schema = getSchema(schemaType);
+        Object[] values = schema.read(json);
+        if (values != null) {
+            validate(schema.getPlan(), values, Integer.MAX_VALUE);
+        }
+    }
+
+    private void validate(ValidationPlan plan, Object target, int maxErrors) throws ValidationException {
+        ensureOpen();
+        ValidationLimits current = limits;
+        List<FieldError> errors = new ArrayList<>();
+        plan.validate(target, errors, Math.min(maxErrors, current.getMaxErrors()), current);
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors);
+        }
+    }
+
+    /**
+     * Runs the synchronous constraints first and, only if they pass, every async constraint concurrently.
+     * The returned future fails with a {@link ValidationException} when any constraint is violated.
+     */
+    public CompletableFuture<Void> validateAsync(Object object) {
+        return validateAsync(object, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #validateAsync(Object)}, reporting at most {@code maxErrors} violations (1 = fail fast).
+     */
+    public CompletableFuture<Void> validateAsync(Object object, int maxErrors) {
+        if (object == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return validateAsync(getPlan(object.getClass()), object, maxErrors);
+    }
+
+    /**
+     * Same as {@link #validateAsync(Object, int)} with a plan the caller already resolved
+     * (see {@link #getPlan(Class)}), skipping the per-call lookup. The plan must belong to the object's class,
+     * or be the plan of a {@link JsonSchema} with {@code object} the values it read.
+     */
+    public CompletableFuture<Void> validateAsync(ValidationPlan plan, Object object, int maxErrors) {
+        if (object == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ensureOpen();
+
+        ValidationLimits current = limits;
+        int errorLimit = Math.min(maxErrors, current.getMaxErrors());
+
+        List<FieldError> syncErrors = new ArrayList<>();
+        plan.validate(object, syncErrors, errorLimit, current);
+        if (!syncErrors.isEmpty()) {
+            return CompletableFuture.failedFuture(new ValidationException(syncErrors));
+        }
+
+        if (!plan.hasAsyncConstraints()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<CompletableFuture<FieldError>> pending = plan.validateAsync(object, current);
+
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<FieldError> errors = new ArrayList<>();
+            for (CompletableFuture<FieldError> future : pending) {
+                FieldError error = future.join();
+                if (error != null) {
+                    errors.add(error);
+                    if (errors.size() >= errorLimit) {
+                        break;
+                    }
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new ValidationException(errors);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Configuration of a {@link ValidationEngine}. Starts with the built-in constraints, no rules and the default limits.
+     */
+    public static final class Builder {
+
+        private ConstraintRegistry registry = ConstraintRegistry.defaults();
+        private ConstraintRules rules = ConstraintRules.EMPTY;
+        private ValidationLimits limits = ValidationLimits.DEFAULT;
+
+        private Builder() {
+        }
+
+        public <A extends Annotation> Builder constraint(Class<A> annotationType, ConstraintValidator<A> validator) {
+            registry = registry.withConstraint(annotationType, validator);
+            return this;
+        }
+
+        public <A extends Annotation> Builder asyncConstraint(Class<A> annotationType, AsyncConstraintValidator<A> validator) {
+            registry = registry.withAsyncConstraint(annotationType, validator);
+            return this;
+        }
+
+        public <A extends Annotation> Builder classConstraint(Class<A> annotationType, ClassConstraintValidator<A> validator) {
+            registry = registry.withClassConstraint(annotationType, validator);
+            return this;
+        }
+
+        public Builder rules(ConstraintRules rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        public Builder limits(ValidationLimits limits) {
+            this.limits = limits;
+            return this;
+        }
+
+        /**
+         * Each call returns a new, independent engine.
+         */
+        public ValidationEngine build() {
+            return new ValidationEngine(this);
+        }
+    }
+}
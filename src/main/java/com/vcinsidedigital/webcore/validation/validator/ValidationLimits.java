@@ -0,0 +1,91 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounds the memory held by a rejected request (how many violations are collected and
+ * how much of each rejected value is kept in its FieldError) and how long async constraints may take.
+ */
+public final class ValidationLimits {
+
+    public static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(5);
+    public static final ValidationLimits DEFAULT = new ValidationLimits(100, 256);
+
+    private final int maxErrors;
+    private final int maxRejectedValueLength;
+    private final Duration asyncTimeout;
+
+    /**
+     * @param maxErrors              collection stops after this many violations
+     * @param maxRejectedValueLength longer rejected strings are truncated to this many characters
+     */
+    public ValidationLimits(int maxErrors, int maxRejectedValueLength) {
+        this(maxErrors, maxRejectedValueLength, DEFAULT_ASYNC_TIMEOUT);
+    }
+
+    /**
+     * @param asyncTimeout an async constraint that has not completed after this long is reported as violated
+     */
+    public ValidationLimits(int maxErrors, int maxRejectedValueLength, Duration asyncTimeout) {
+        if (maxErrors < 1) {
+            throw new IllegalArgumentException("maxErrors must be at least 1");
+        }
+        if (maxRejectedValueLength < 0) {
+            throw new IllegalArgumentException("maxRejectedValueLength must not be negative");
+        }
+        if (asyncTimeout == null || asyncTimeout.isNegative() || asyncTimeout.isZero()) {
+            throw new IllegalArgumentException("asyncTimeout must be positive");
+        }
+        this.maxErrors = maxErrors;
+        this.maxRejectedValueLength = maxRejectedValueLength;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public int getMaxRejectedValueLength() {
+        return maxRejectedValueLength;
+    }
+
+    public Duration getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Returns what a FieldError may keep of a rejected value: small scalar values as they are,
+     * long strings truncated, and containers or other objects as a short description.
+     */
+    public Object summarize(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum || value instanceof TemporalAccessor || value instanceof UUID) {
+            return value;
+        }
+
+        if (value instanceof CharSequence) {
+            CharSequence text = (CharSequence) value;
+            if (text.length() <= maxRejectedValueLength) {
+                return text.toString();
+            }
+            return text.subSequence(0, maxRejectedValueLength) + "... (" + text.length() + " characters)";
+        }
+
+        String type = value.getClass().getSimpleName();
+        if (value instanceof Collection) {
+            return type + "[size=" + ((Collection<?>) value).size() + "]";
+        }
+        if (value instanceof Map) {
+            return type + "[size=" + ((Map<?, ?>) value).size() + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[length=" + Array.getLength(value) + "]";
+        }
+        return type;
+    }
+}
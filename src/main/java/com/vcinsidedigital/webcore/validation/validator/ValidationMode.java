@@ -0,0 +1,33 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+/**
+ * How a @Valid parameter is validated.
+ */
+public enum ValidationMode {
+
+    /**
+     * Use the mode configured for the DTO in ValidationPlugin, or FULL when there is none.
+     */
+    DEFAULT,
+
+    /**
+     * Every constraint runs and every violation is reported.
+     */
+    FULL,
+
+    /**
+     * Validation stops at the first violation.
+     */
+    FAIL_FAST,
+
+    /**
+     * Only a percentage of the requests is validated, and violations are only recorded as metrics;
+     * the request always proceeds. Meant for detecting drift on trusted high-volume paths.
+     */
+    SAMPLED,
+
+    /**
+     * Validation is skipped when the trusted-request predicate accepts the request, otherwise FULL.
+     */
+    TRUSTED_BYPASS
+}
@@ -0,0 +1,336 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Constraints of one class, resolved once so validation only touches the
+ * fields that carry constraints and only runs the constraints present on each of them.
+ */
+public final class ValidationPlan {
+
+    /**
+     * Message of an async constraint that did not complete within {@link ValidationLimits#getAsyncTimeout()}.
+     */
+    public static final String TIMEOUT_MESSAGE = "Validation timed out";
+    private static final String ENCODED_TIMEOUT_MESSAGE = JsonStrings.quote(TIMEOUT_MESSAGE);
+
+    private final Class<?> type;
+    private final FieldPlan[] fields;
+    private final ClassConstraint[] classConstraints;
+    // Last path / message of each class constraint, encoded for the error renderer
+    private final EncodedText[] classFields;
+    private final EncodedText[] classMessages;
+    private final boolean hasAsyncConstraints;
+
+    // Set once a newer generation of plans replaces this one (new rules, a new registration or an unload)
+    private final AtomicBoolean retired;
+
+    private ValidationPlan(Class<?> type, FieldPlan[] fields, ClassConstraint[] classConstraints, AtomicBoolean retired) {
+        this.type = type;
+        this.retired = retired;
+        this.fields = fields;
+        this.classConstraints = classConstraints;
+        this.classFields = encodedTexts(classConstraints.length);
+        this.classMessages = encodedTexts(classConstraints.length);
+
+        boolean async = false;
+        for (FieldPlan field : fields) {
+            async |= field.asyncChecks.length > 0;
+        }
+        this.hasAsyncConstraints = async;
+    }
+
+    /**
+     * @param rules   external rules that override or add field constraints; applied here, never on the hot path
+     * @param retired flag of the generation the plan belongs to
+     */
+    static ValidationPlan compile(Class<?> type, ConstraintRegistry registry, ConstraintRules rules, AtomicBoolean retired) {
+        return compile(type, registry, rules, retired, ValidationPlan::accessor);
+    }
+
+    /**
+     * @param accessorFactory reads a field from whatever object the plan validates
+     *                        (an instance of {@code type}, or the values a {@link JsonSchema} read)
+     */
+    static ValidationPlan compile(Class<?> type, ConstraintRegistry registry, ConstraintRules rules, AtomicBoolean retired,
+                                  Function<Field, FieldAccessor> accessorFactory) {
+        rules.verify(type, registry);
+
+        Map<String, FieldAccessor> accessors = new HashMap<>();
+        List<FieldPlan> fields = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            Map<Class<? extends Annotation>, Annotation> present = new LinkedHashMap<>();
+            for (Class<? extends Annotation> annotationType : registry.fieldConstraints.keySet()) {
+                Annotation annotation = rules.apply(type, field, annotationType, field.getAnnotation(annotationType));
+                if (annotation != null) {
+                    present.put(annotationType, annotation);
+                }
+            }
+
+            StringConstraintKernel kernel = StringConstraintKernel.fuse(field, present, registry);
+            List<FieldConstraint> checks = new ArrayList<>();
+            for (Map.Entry<Class<? extends Annotation>, Annotation> entry : present.entrySet()) {
+                if (kernel == null || !StringConstraintKernel.covers(entry.getKey())) {
+                    checks.add(compileConstraint(registry.fieldConstraints.get(entry.getKey()), entry.getValue(), field));
+                }
+            }
+
+            List<AsyncCheck> asyncChecks = new ArrayList<>();
+            for (Map.Entry<Class<? extends Annotation>, AsyncConstraintValidator<?>> entry : registry.asyncConstraints.entrySet()) {
+                Annotation annotation = field.getAnnotation(entry.getKey());
+                if (annotation != null) {
+                    asyncChecks.add(compileAsync(entry.getValue(), annotation));
+                }
+            }
+
+            if (kernel != null || !checks.isEmpty() || !asyncChecks.isEmpty()) {
+                FieldAccessor accessor = accessors.computeIfAbsent(field.getName(), name -> accessorFactory.apply(field));
+                fields.add(new FieldPlan(field.getName(), accessor, kernel,
+                        checks.toArray(new FieldConstraint[0]),
+                        asyncChecks.toArray(new AsyncCheck[0])));
+            }
+        }
+
+        List<ClassConstraint> classConstraints = new ArrayList<>();
+        for (Map.Entry<Class<? extends Annotation>, ClassConstraintValidator<?>> entry : registry.classConstraints.entrySet()) {
+            for (Annotation annotation : type.getAnnotationsByType(entry.getKey())) {
+                classConstraints.add(compileClassConstraint(entry.getValue(), annotation, name -> {
+                    Field target = findField(type, name);
+                    FieldAccessor accessor = accessors.computeIfAbsent(name, missing -> accessorFactory.apply(target));
+                    return new TypedAccessor(accessor, target.getType());
+                }));
+            }
+        }
+
+        return new ValidationPlan(type, fields.toArray(new FieldPlan[0]), classConstraints.toArray(new ClassConstraint[0]), retired);
+    }
+
+    private static EncodedText[] encodedTexts(int count) {
+        EncodedText[] texts = new EncodedText[count];
+        for (int i = 0; i < count; i++) {
+            texts[i] = new EncodedText();
+        }
+        return texts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldConstraint compileConstraint(ConstraintValidator<?> validator, Annotation annotation, Field field) {
+        return ((ConstraintValidator<Annotation>) validator).compile(annotation, field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AsyncCheck compileAsync(AsyncConstraintValidator<?> validator, Annotation annotation) {
+        AsyncConstraintValidator<Annotation> typed = (AsyncConstraintValidator<Annotation>) validator;
+        String message = typed.getMessage(annotation);
+        return new AsyncCheck(typed, annotation, message, JsonStrings.quote(message));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ClassConstraint compileClassConstraint(ClassConstraintValidator<?> validator, Annotation annotation,
+                                                          Function<String, FieldAccessor> accessors) {
+        return ((ClassConstraintValidator<Annotation>) validator).compile(annotation, accessors);
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // Keep looking in the superclass
+            }
+        }
+        throw new IllegalArgumentException("Field '" + name + "' not found in " + type.getName());
+    }
+
+    /**
+     * Direct accessor for a field, bound once instead of going through Field.get on every read.
+     */
+    static FieldAccessor accessor(Field field) {
+        String name = field.getName();
+        MethodHandle getter;
+        try {
+            field.setAccessible(true);
+            getter = MethodHandles.lookup().unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Error accessing field: " + name, e);
+        }
+
+        if (Modifier.isStatic(field.getModifiers())) {
+            getter = MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+        } else {
+            getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        MethodHandle bound = getter;
+        return object -> {
+            try {
+                return (Object) bound.invokeExact(object);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Error accessing field: " + name, t);
+            }
+        };
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean hasAsyncConstraints() {
+        return hasAsyncConstraints;
+    }
+
+    /**
+     * True once the validator that built this plan has replaced it (new rules or registrations) or been closed.
+     * Holders of a plan use it to know when to look it up again.
+     */
+    public boolean isStale() {
+        return retired.get();
+    }
+
+    /**
+     * Collects violations until {@code maxErrors} of them have been found.
+     * Rejected values are summarized so errors never pin large request objects.
+     */
+    void validate(Object object, List<FieldError> errors, int maxErrors, ValidationLimits limits) {
+        for (FieldPlan field : fields) {
+            if (field.kernel == null && field.checks.length == 0) {
+                continue;
+            }
+
+            Object value = field.accessor.get(object);
+            if (field.kernel != null && !field.kernel.validate(value, errors, maxErrors, limits)) {
+                return;
+            }
+            for (int i = 0; i < field.checks.length; i++) {
+                String message = field.checks[i].validate(value);
+                if (message != null) {
+                    errors.add(new EncodedFieldError(field.name, message, limits.summarize(value),
+                            field.encodedName, field.messages[i].encode(message)));
+                    if (errors.size() >= maxErrors) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < classConstraints.length; i++) {
+            FieldError error = classConstraints[i].validate(object);
+            if (error != null) {
+                errors.add(new EncodedFieldError(error.getField(), error.getMessage(), limits.summarize(error.getRejectedValue()),
+                        classFields[i].encode(error.getField()), classMessages[i].encode(error.getMessage())));
+                if (errors.size() >= maxErrors) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts every async constraint of the object; each future completes with the error or {@code null}.
+     */
+    List<CompletableFuture<FieldError>> validateAsync(Object object, ValidationLimits limits) {
+        List<CompletableFuture<FieldError>> pending = new ArrayList<>();
+        for (FieldPlan field : fields) {
+            if (field.asyncChecks.length == 0) {
+                continue;
+            }
+
+            Object value = field.accessor.get(object);
+            for (AsyncCheck check : field.asyncChecks) {
+                pending.add(check.run(field.name, field.encodedName, value, limits));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Accessor handed to class constraints, so they can check the field types when they are compiled.
+     */
+    private static final class TypedAccessor implements FieldAccessor {
+        private final FieldAccessor accessor;
+        private final Class<?> type;
+
+        private TypedAccessor(FieldAccessor accessor, Class<?> type) {
+            this.accessor = accessor;
+            this.type = type;
+        }
+
+        @Override
+        public Object get(Object object) {
+            return accessor.get(object);
+        }
+
+        @Override
+        public Class<?> getType() {
+            return type;
+        }
+    }
+
+    private static final class FieldPlan {
+        private final String name;
+        private final String encodedName;
+        private final FieldAccessor accessor;
+        private final StringConstraintKernel kernel;
+        private final FieldConstraint[] checks;
+        // Last message of each check, encoded for the error renderer
+        private final EncodedText[] messages;
+        private final AsyncCheck[] asyncChecks;
+
+        private FieldPlan(String name, FieldAccessor accessor, StringConstraintKernel kernel,
+                          FieldConstraint[] checks, AsyncCheck[] asyncChecks) {
+            this.name = name;
+            this.encodedName = JsonStrings.quote(name);
+            this.accessor = accessor;
+            this.kernel = kernel;
+            this.checks = checks;
+            this.messages = encodedTexts(checks.length);
+            this.asyncChecks = asyncChecks;
+        }
+    }
+
+    private static final class AsyncCheck {
+        private final AsyncConstraintValidator<Annotation> validator;
+        private final Annotation annotation;
+        private final String message;
+        private final String encodedMessage;
+
+        private AsyncCheck(AsyncConstraintValidator<Annotation> validator, Annotation annotation, String message,
+                           String encodedMessage) {
+            this.validator = validator;
+            this.annotation = annotation;
+            this.message = message;
+            this.encodedMessage = encodedMessage;
+        }
+
+        /**
+         * A lookup that never completes must not hold the request: after the configured timeout the
+         * constraint is reported as violated with {@link #TIMEOUT_MESSAGE}.
+         */
+        private CompletableFuture<FieldError> run(String field, String encodedField, Object value, ValidationLimits limits) {
+            return validator.isValid(annotation, value)
+                    .<FieldError>thenApply(valid -> valid ? null
+                            : new EncodedFieldError(field, message, limits.summarize(value), encodedField, encodedMessage))
+                    .completeOnTimeout(new EncodedFieldError(field, TIMEOUT_MESSAGE, null, encodedField, ENCODED_TIMEOUT_MESSAGE),
+                            limits.getAsyncTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
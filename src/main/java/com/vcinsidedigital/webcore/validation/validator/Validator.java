@@ -1,201 +1,97 @@
 package com.vcinsidedigital.webcore.validation.validator;
 
-import com.vcinsidedigital.webcore.validation.annotations.*;
-
-import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
 import com.vcinsidedigital.webcore.validation.exception.ValidationException;
-import com.vcinsidedigital.webcore.validation.exception.ValidationException.*;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
+import com.google.gson.JsonElement;
 
-public class Validator {
+import java.util.concurrent.CompletableFuture;
 
-    public static void validate(Object object) throws ValidationException {
-        if (object == null) {
-            return;
-        }
+/**
+ * Static access to the default {@link ValidationEngine}. The ValidationPlugin installs its own engine
+ * here while it is loaded, so these methods use the configuration of the running application.
+ * <p>
+ * Configuration is read-only here: constraints, limits and rules belong to whoever builds the engine
+ * (the ValidationPlugin, or {@link ValidationEngine#builder()}), since the default engine is replaced
+ * whenever the plugin loads or unloads.
+ */
+public class Validator {
 
-        List<FieldError> errors = new ArrayList<>();
-        Class<?> clazz = object.getClass();
-
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-
-            try {
-                Object value = field.get(object);
-
-                // @NotNull
-                if (field.isAnnotationPresent(NotNull.class)) {
-                    validateNotNull(field, value, errors);
-                }
-
-                // @NotEmpty
-                if (field.isAnnotationPresent(NotEmpty.class)) {
-                    validateNotEmpty(field, value, errors);
-                }
-
-                // @NotBlank
-                if (field.isAnnotationPresent(NotBlank.class)) {
-                    validateNotBlank(field, value, errors);
-                }
-
-                // @Size
-                if (field.isAnnotationPresent(Size.class)) {
-                    validateSize(field, value, errors);
-                }
-
-                // @Min
-                if (field.isAnnotationPresent(Min.class)) {
-                    validateMin(field, value, errors);
-                }
-
-                // @Max
-                if (field.isAnnotationPresent(Max.class)) {
-                    validateMax(field, value, errors);
-                }
-
-                // @Email
-                if (field.isAnnotationPresent(Email.class)) {
-                    validateEmail(field, value, errors);
-                }
-
-                // @Pattern
-                if (field.isAnnotationPresent(com.vcinsidedigital.webcore.validation.annotations.Annotations.Pattern.class)) {
-                    validatePattern(field, value, errors);
-                }
-
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Error accessing field: " + field.getName(), e);
-            }
-        }
+    private static volatile ValidationEngine defaultEngine = ValidationEngine.builder().build();
 
-        if (!errors.isEmpty()) {
-            throw new ValidationException(errors);
-        }
+    public static ValidationEngine getDefault() {
+        return defaultEngine;
     }
 
-    private static void validateNotNull(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            Annotations.NotNull annotation = field.getAnnotation(Annotations.NotNull.class);
-            errors.add(new FieldError(field.getName(), annotation.message(), value));
+    public static synchronized void setDefault(ValidationEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("engine must not be null");
         }
+        defaultEngine = engine;
     }
 
-    private static void validateNotEmpty(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            NotEmpty annotation = field.getAnnotation(NotEmpty.class);
-            errors.add(new FieldError(field.getName(), annotation.message(), value));
-            return;
-        }
-
-        if (value instanceof String && ((String) value).isEmpty()) {
-            NotEmpty annotation = field.getAnnotation(NotEmpty.class);
-            errors.add(new FieldError(field.getName(), annotation.message(), value));
-        } else if (value instanceof java.util.Collection && ((java.util.Collection<?>) value).isEmpty()) {
-            NotEmpty annotation = field.getAnnotation(NotEmpty.class);
-            errors.add(new FieldError(field.getName(), annotation.message(), value));
+    /**
+     * Replaces {@code engine} with a fresh, unconfigured default if it is still the default,
+     * so nothing static keeps it (or the classes it validated) reachable.
+     */
+    public static synchronized void releaseDefault(ValidationEngine engine) {
+        if (defaultEngine == engine) {
+            defaultEngine = ValidationEngine.builder().build();
         }
     }
 
-    private static void validateNotBlank(Field field, Object value, List<FieldError> errors) {
-        if (value == null || (value instanceof String && ((String) value).trim().isEmpty())) {
-            NotBlank annotation = field.getAnnotation(NotBlank.class);
-            errors.add(new FieldError(field.getName(), annotation.message(), value));
-        }
+    public static ValidationLimits getLimits() {
+        return defaultEngine.getLimits();
     }
 
-    private static void validateSize(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            return;
-        }
-
-        Size annotation = field.getAnnotation(Size.class);
-        int size = 0;
-
-        if (value instanceof String) {
-            size = ((String) value).length();
-        } else if (value instanceof java.util.Collection) {
-            size = ((java.util.Collection<?>) value).size();
-        } else if (value.getClass().isArray()) {
-            size = java.lang.reflect.Array.getLength(value);
-        }
-
-        if (size < annotation.min() || size > annotation.max()) {
-            String message = annotation.message()
-                    .replace("{min}", String.valueOf(annotation.min()))
-                    .replace("{max}", String.valueOf(annotation.max()));
-            errors.add(new FieldError(field.getName(), message, value));
-        }
+    /**
+     * Returns the compiled plan of a class, building it on first use.
+     */
+    public static ValidationPlan getPlan(Class<?> clazz) {
+        return defaultEngine.getPlan(clazz);
     }
 
-    private static void validateMin(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            return;
-        }
-
-        Min annotation = field.getAnnotation(Min.class);
-        long numValue = 0;
-
-        if (value instanceof Number) {
-            numValue = ((Number) value).longValue();
-        }
-
-        if (numValue < annotation.value()) {
-            String message = annotation.message().replace("{value}", String.valueOf(annotation.value()));
-            errors.add(new FieldError(field.getName(), message, value));
-        }
+    public static JsonSchema getSchema(Class<?> type) {
+        return defaultEngine.getSchema(type);
     }
 
-    private static void validateMax(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            return;
-        }
-
-        Max annotation = field.getAnnotation(Max.class);
-        long numValue = 0;
-
-        if (value instanceof Number) {
-            numValue = ((Number) value).longValue();
-        }
-
-        if (numValue > annotation.value()) {
-            String message = annotation.message().replace("{value}", String.valueOf(annotation.value()));
-            errors.add(new FieldError(field.getName(), message, value));
-        }
+    public static void validate(Object object) throws ValidationException {
+        defaultEngine.validate(object);
     }
 
-    private static void validateEmail(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            return;
-        }
-
-        if (value instanceof String) {
-            String email = (String) value;
-            String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+    /**
+     * Stops collecting violations after {@code maxErrors} of them (1 = fail fast),
+     * or earlier if the configured {@link ValidationLimits} are lower.
+     */
+    public static void validate(Object object, int maxErrors) throws ValidationException {
+        defaultEngine.validate(object, maxErrors);
+    }
 
-            if (!Pattern.compile(emailRegex).matcher(email).matches()) {
-                Email annotation = field.getAnnotation(Email.class);
-                errors.add(new FieldError(field.getName(), annotation.message(), value));
-            }
-        }
+    /**
+     * Validates a JSON object against the constraints declared on {@code schemaType}, without binding it.
+     */
+    public static void validateJson(Class<?> schemaType, JsonElement json) throws ValidationException {
+        defaultEngine.validateJson(schemaType, json);
     }
 
-    private static void validatePattern(Field field, Object value, List<FieldError> errors) {
-        if (value == null) {
-            return;
-        }
+    /**
+     * Runs the synchronous constraints first and, only if they pass, every async constraint concurrently.
+     * The returned future fails with a {@link ValidationException} when any constraint is violated.
+     */
+    public static CompletableFuture<Void> validateAsync(Object object) {
+        return defaultEngine.validateAsync(object);
+    }
 
-        if (value instanceof String) {
-            com.vcinsidedigital.webcore.validation.annotations.Annotations.Pattern annotation =
-                    field.getAnnotation(com.vcinsidedigital.webcore.validation.annotations.Annotations.Pattern.class);
-            String stringValue = (String) value;
+    /**
+     * Same as {@link #validateAsync(Object)}, reporting at most {@code maxErrors} violations (1 = fail fast).
+     */
+    public static CompletableFuture<Void> validateAsync(Object object, int maxErrors) {
+        return defaultEngine.validateAsync(object, maxErrors);
+    }
 
-            if (!Pattern.compile(annotation.regexp()).matcher(stringValue).matches()) {
-                errors.add(new FieldError(field.getName(), annotation.message(), value));
-            }
-        }
+    /**
+     * Same as {@link #validateAsync(Object, int)} with a plan the caller already resolved.
+     */
+    public static CompletableFuture<Void> validateAsync(ValidationPlan plan, Object object, int maxErrors) {
+        return defaultEngine.validateAsync(plan, object, maxErrors);
     }
 }
@@ -0,0 +1,197 @@
+package com.vcinsidedigital.webcore.validation;
+
+import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
+import com.vcinsidedigital.webcore.validation.exception.ValidationException;
+import com.vcinsidedigital.webcore.validation.handlers.ValidHandler;
+import com.vcinsidedigital.webcore.validation.handlers.ValidationErrorRenderer;
+import com.vcinsidedigital.webcore.validation.validator.ConstraintValidator;
+import com.vcinsidedigital.webcore.validation.validator.FieldConstraint;
+import com.vcinsidedigital.webcore.validation.validator.ValidationEngine;
+import com.vcinsidedigital.webcore.validation.validator.ValidationMode;
+import com.vcinsidedigital.webcore.validation.validator.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a redeployed application can be collected: each round loads the {@code App*} classes below
+ * in a fresh child class loader, as a container would, and runs a ValidationPlugin against them.
+ * The round validates objects, unbound JSON and a @Valid parameter, and renders the errors.
+ * After {@code onUnload}, only a WeakReference to the loader is kept, and it must be cleared by GC.
+ */
+class RedeployTest {
+
+    private static final String APP_PREFIX = RedeployTest.class.getName() + "$App";
+    private static final int ROUNDS = 3;
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    public @interface AppForbidden {
+        String value();
+    }
+
+    public static final class AppForbiddenValidator implements ConstraintValidator<AppForbidden> {
+        @Override
+        public FieldConstraint compile(AppForbidden annotation, Field field) {
+            return value -> annotation.value().equals(String.valueOf(value)) ? "forbidden" : null;
+        }
+    }
+
+    public enum AppKind {
+        A, B
+    }
+
+    public static final class AppItem {
+        public String label;
+    }
+
+    public static final class AppDto {
+        @NotBlank
+        @AppForbidden("admin")
+        public String name;
+        @Size(max = 1)
+        public List<AppItem> items;
+        @AppForbidden("B")
+        public AppKind kind;
+
+        public void create(@Valid AppDto dto) {
+        }
+
+        public void forward(@Valid(schema = AppDto.class) String body) {
+        }
+    }
+
+    @Test
+    void redeployedApplicationsAreCollected() throws Exception {
+        List<WeakReference<ClassLoader>> loaders = new ArrayList<>();
+        ValidHandler handler = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            AppLoader loader = new AppLoader();
+            handler = deploy(loader, handler);
+            loaders.add(new WeakReference<>(loader));
+        }
+
+        for (int attempt = 0; attempt < 50 && !collected(loaders); attempt++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        assertTrue(collected(loaders), "a redeployed application's class loader is still reachable");
+    }
+
+    /**
+     * One deploy/undeploy cycle; returns the @Valid handler, which must be the same in every round.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValidHandler deploy(AppLoader loader, ValidHandler previousHandler) throws Exception {
+        Class<?> dtoType = loader.loadClass(APP_PREFIX + "Dto");
+        Class<? extends Annotation> forbidden = loader.loadClass(APP_PREFIX + "Forbidden").asSubclass(Annotation.class);
+        ConstraintValidator validator = (ConstraintValidator) loader.loadClass(APP_PREFIX + "ForbiddenValidator")
+                .getConstructor().newInstance();
+
+        ValidationPlugin plugin = new ValidationPlugin()
+                .registerConstraint((Class) forbidden, validator)
+                .mode(dtoType, ValidationMode.FULL);
+        plugin.onLoad(null);
+        ValidationEngine engine = plugin.getValidator();
+
+        ValidHandler handler = handler();
+        if (previousHandler != null) {
+            assertSame(previousHandler, handler, "onLoad registered a second @Valid handler");
+        }
+        Parameter bound = dtoType.getMethod("create", dtoType).getParameters()[0];
+        Parameter schema = dtoType.getMethod("forward", String.class).getParameters()[0];
+        assertTrue(handler.canHandle(bound) && handler.canHandle(schema),
+                "the @Valid handler does not resolve the application's parameters");
+
+        Object dto = dtoType.getConstructor().newInstance();
+        dtoType.getField("name").set(dto, "admin");
+        dtoType.getField("kind").set(dto, dtoType.getField("kind").getType().getEnumConstants()[1]);
+        assertErrors(() -> Validator.validate(dto), 2);
+        assertErrors(() -> engine.validateJson(dtoType,
+                JsonParser.parseString("{\"name\":\" \",\"items\":[{\"label\":\"a\"},{}],\"kind\":\"B\"}")), 3);
+
+        plugin.onUnload(null);
+
+        assertNotSame(engine, Validator.getDefault(), "the unloaded engine is still the default");
+        assertThrows(IllegalStateException.class, () -> engine.getPlan(dtoType), "the unloaded engine is still usable");
+        assertFalse(handler.canHandle(bound) || handler.canHandle(schema),
+                "the detached @Valid handler still claims the application's parameters");
+        assertThrows(IllegalStateException.class, () -> handler.resolveParameter(bound, null),
+                "the detached @Valid handler still resolves parameters");
+        return handler;
+    }
+
+    private static ValidHandler handler() throws ReflectiveOperationException {
+        Field field = ValidationPlugin.class.getDeclaredField("handler");
+        field.setAccessible(true);
+        return (ValidHandler) field.get(null);
+    }
+
+    private static void assertErrors(Executable validation, int count) {
+        ValidationException e = assertThrows(ValidationException.class, validation, "expected " + count + " violations");
+        assertEquals(count, e.getErrors().size(), "violations: " + e.getErrors());
+        ValidationErrorRenderer.DEFAULT.render(e.getErrors());
+    }
+
+    private static boolean collected(List<WeakReference<ClassLoader>> loaders) {
+        for (WeakReference<ClassLoader> loader : loaders) {
+            if (loader.get() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Defines its own copy of the {@code App*} classes, delegating everything else (the library) to the parent.
+     */
+    private static final class AppLoader extends ClassLoader {
+
+        AppLoader() {
+            super(RedeployTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(APP_PREFIX)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        if (in == null) {
+                            throw new ClassNotFoundException(name);
+                        }
+                        byte[] bytes = in.readAllBytes();
+                        loaded = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return loaded;
+            }
+        }
+    }
+}
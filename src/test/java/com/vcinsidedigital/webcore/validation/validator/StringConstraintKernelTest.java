@@ -0,0 +1,162 @@
+package com.vcinsidedigital.webcore.validation.validator;
+
+import com.vcinsidedigital.webcore.validation.annotations.Annotations.*;
+import com.vcinsidedigital.webcore.validation.exception.ValidationException.FieldError;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that {@link StringConstraintKernel} reports exactly what the separate built-in constraints report:
+ * same fields, messages, rejected values and order, for every input below and every error limit.
+ * <p>
+ * The reference plan binds the same built-in implementations through distinct instances, which keeps
+ * {@link StringConstraintKernel#fuse} from fusing them.
+ */
+class StringConstraintKernelTest {
+
+    private static final String[] INPUTS = {
+            null, "", " ", "\t\n", "  a  ", "a",
+            "a@b.cd", "a.b+c_d-e@sub-domain.example.com", "A1@B2.CO",
+            "a@.cd", "a@b.c1", "a@b.c", "a@b.", "a@b", "@b.cd", "a@@b.cd", "a@b..cd", "a@b.c-d", "a@b-.cd",
+            "a@b.cd ", " a@b.cd", "\u00E1@b.cd", "a@b.\u00E7d", "a b@c.de",
+            // Surrogate pairs: 2 chars, 1 code point each
+            "\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00", "ab\uD83D\uDE00", "\uD83D\uDE00@b.cd",
+            // Unpaired surrogates count as one code point, like String.codePointCount
+            "\uD83D", "\uDE00", "a\uDE00\uD83D", "\uD83D\uD83D\uDE00"
+    };
+
+    private static final ConstraintRegistry FUSED = ConstraintRegistry.defaults();
+    // Same implementations, different instances: fuse() only accepts the built-in ones
+    private static final ConstraintRegistry UNFUSED = FUSED
+            .withConstraint(NotNull.class, BuiltInConstraints.NOT_NULL::compile)
+            .withConstraint(NotEmpty.class, BuiltInConstraints.NOT_EMPTY::compile)
+            .withConstraint(NotBlank.class, BuiltInConstraints.NOT_BLANK::compile)
+            .withConstraint(Size.class, BuiltInConstraints.SIZE::compile)
+            .withConstraint(Email.class, BuiltInConstraints.EMAIL::compile);
+
+    static final class EmailOnly {
+        @Email
+        String value;
+    }
+
+    static final class Required {
+        @NotNull
+        @NotEmpty
+        @NotBlank
+        String value;
+    }
+
+    static final class CodePoints {
+        @NotBlank
+        @Size(min = 2, max = 3, codePoints = true)
+        String value;
+    }
+
+    static final class Chars {
+        @Size(min = 2, max = 3)
+        @NotEmpty
+        String value;
+    }
+
+    static final class Everything {
+        @NotNull(message = "required")
+        @NotEmpty(message = "empty")
+        @NotBlank(message = "blank")
+        @Size(min = 6, max = 12, codePoints = true, message = "size")
+        @Email(message = "email")
+        String value;
+    }
+
+    @Test
+    void emailOnly() throws Exception {
+        assertKernelMatches(EmailOnly.class);
+    }
+
+    @Test
+    void required() throws Exception {
+        assertKernelMatches(Required.class);
+    }
+
+    @Test
+    void sizeInCodePoints() throws Exception {
+        assertKernelMatches(CodePoints.class);
+    }
+
+    @Test
+    void sizeInChars() throws Exception {
+        assertKernelMatches(Chars.class);
+    }
+
+    @Test
+    void everything() throws Exception {
+        assertKernelMatches(Everything.class);
+    }
+
+    private static void assertKernelMatches(Class<?> type) throws ReflectiveOperationException {
+        Field field = type.getDeclaredField("value");
+        assertNotNull(StringConstraintKernel.fuse(field, present(field, FUSED), FUSED),
+                "the default registry must fuse the constraints");
+        assertNull(StringConstraintKernel.fuse(field, present(field, UNFUSED), UNFUSED),
+                "the reference registry must not fuse the constraints");
+
+        ValidationPlan kernelPlan = ValidationPlan.compile(type, FUSED, ConstraintRules.EMPTY, new AtomicBoolean());
+        ValidationPlan referencePlan = ValidationPlan.compile(type, UNFUSED, ConstraintRules.EMPTY, new AtomicBoolean());
+
+        for (String input : INPUTS) {
+            Object dto = type.getDeclaredConstructor().newInstance();
+            field.set(dto, input);
+            for (int maxErrors = 1; maxErrors <= 6; maxErrors++) {
+                assertEquals(run(referencePlan, dto, maxErrors), run(kernelPlan, dto, maxErrors),
+                        describe(input) + " maxErrors=" + maxErrors);
+            }
+        }
+    }
+
+    private static Map<Class<? extends Annotation>, Annotation> present(Field field, ConstraintRegistry registry) {
+        Map<Class<? extends Annotation>, Annotation> present = new LinkedHashMap<>();
+        for (Class<? extends Annotation> annotationType : registry.fieldConstraints.keySet()) {
+            Annotation annotation = field.getAnnotation(annotationType);
+            if (annotation != null) {
+                present.put(annotationType, annotation);
+            }
+        }
+        return present;
+    }
+
+    private static List<String> run(ValidationPlan plan, Object dto, int maxErrors) {
+        List<FieldError> errors = new ArrayList<>();
+        plan.validate(dto, errors, maxErrors, ValidationLimits.DEFAULT);
+
+        List<String> described = new ArrayList<>();
+        for (FieldError error : errors) {
+            described.add(error.getField() + ":" + error.getMessage() + ":" + describe(error.getRejectedValue()));
+        }
+        return described;
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toString().toCharArray()) {
+            if (c < ' ' || c > '~') {
+                out.append(String.format("\\u%04X", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}